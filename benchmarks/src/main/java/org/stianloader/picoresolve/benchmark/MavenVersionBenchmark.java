@@ -0,0 +1,84 @@
+package org.stianloader.picoresolve.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+/**
+ * Benchmarks for parsing, comparing and hashing {@link MavenVersion} instances.
+ * Each invocation processes an entire synthetic version history of the given size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MavenVersionBenchmark {
+
+    @Param({"10", "500", "5000"})
+    public int catalogueSize;
+
+    private String @NotNull[] strings = new String[0];
+    private MavenVersion @NotNull[] versions = new MavenVersion[0];
+    private MavenVersion @NotNull[] copies = new MavenVersion[0];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<@NotNull String> generated = SyntheticVersions.generate(this.catalogueSize, 0x5EED);
+        this.strings = generated.toArray(new String[0]);
+        this.versions = new MavenVersion[this.strings.length];
+        this.copies = new MavenVersion[this.strings.length];
+        for (int i = 0; i < this.strings.length; i++) {
+            this.versions[i] = MavenVersion.parse(this.strings[i]);
+            // Distinct instances so that equals cannot short-circuit on identity
+            this.copies[i] = MavenVersion.parse(new String(this.strings[i]));
+        }
+    }
+
+    @Benchmark
+    public void compareTo(Blackhole blackhole) {
+        MavenVersion[] versions = this.versions;
+        for (int i = 1; i < versions.length; i++) {
+            blackhole.consume(versions[i].compareTo(versions[i - 1]));
+        }
+    }
+
+    @Benchmark
+    public void equals(Blackhole blackhole) {
+        MavenVersion[] versions = this.versions;
+        MavenVersion[] copies = this.copies;
+        for (int i = 0; i < versions.length; i++) {
+            blackhole.consume(versions[i].equals(copies[i]));
+        }
+    }
+
+    @Benchmark
+    public void hashCode(Blackhole blackhole) {
+        for (MavenVersion version : this.versions) {
+            blackhole.consume(version.hashCode());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String string : this.strings) {
+            blackhole.consume(MavenVersion.parse(string));
+        }
+    }
+}
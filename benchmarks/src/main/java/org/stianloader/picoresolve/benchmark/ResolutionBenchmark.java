@@ -0,0 +1,174 @@
+package org.stianloader.picoresolve.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.Scope;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.version.MavenVersion;
+import org.stianloader.picoresolve.version.VersionRange;
+
+/**
+ * End-to-end benchmark of {@link MavenResolver#resolveAllChildren(DependencyLayer, java.util.concurrent.Executor)}
+ * against a {@link SyntheticRepository} served through a file:// {@link URIMavenRepository}, meaning that the numbers
+ * do not depend on the availability or the latency of any remote repository.
+ *
+ * <p>The cold benchmark uses a new resolver with an empty local repository for every invocation, whereas
+ * the warm benchmark reuses a single resolver, which can thus serve most requests from its in-memory caches.
+ * The "poms" counter reports the amount of resolved POMs per second. Latency distributions can be obtained
+ * by running the benchmark in sample mode (-bm sample), allocation rates by using the gc profiler (-prof gc).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class ResolutionBenchmark {
+
+    @State(org.openjdk.jmh.annotations.Scope.Thread)
+    public static class ColdResolver {
+        private Path local;
+        private MavenResolver resolver;
+
+        @Setup(Level.Invocation)
+        public void setup(ResolutionBenchmark benchmark) throws IOException {
+            this.local = Files.createTempDirectory("picoresolve-bench-local");
+            this.resolver = new MavenResolver(this.local)
+                    .addRepository(new URIMavenRepository("synthetic", benchmark.remote.toUri()));
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws IOException {
+            SyntheticRepository.delete(this.local);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(org.openjdk.jmh.annotations.Scope.Thread)
+    public static class ResolvedPoms {
+        public long poms;
+    }
+
+    @Param({"false", "true"})
+    public boolean bom;
+
+    @Param({"4"})
+    public int depth;
+
+    @Param({"3"})
+    public int fanOut;
+
+    @Param({"2"})
+    public int parentDepth;
+
+    @Param({"false", "true"})
+    public boolean ranges;
+
+    @Param({"4"})
+    public int threads;
+
+    @Param({"20"})
+    public int versions;
+
+    @Param({"8"})
+    public int width;
+
+    private ExecutorService executor;
+    private Path remote;
+    private SyntheticRepository repository;
+    private Path warmLocal;
+    private MavenResolver warmResolver;
+
+    @Benchmark
+    public DependencyLayer cold(ColdResolver cold, ResolvedPoms counter) throws Exception {
+        return this.resolve(cold.resolver, counter);
+    }
+
+    @NotNull
+    private DependencyLayer resolve(@NotNull MavenResolver resolver, @NotNull ResolvedPoms counter) throws Exception {
+        List<DependencyEdge> edges = new ArrayList<>();
+        for (String artifact : this.repository.roots()) {
+            edges.add(new DependencyEdge(SyntheticRepository.GROUP, artifact, null, "jar", VersionRange.parse(this.ranges ? "[1.0,2.0)" : "1." + (this.versions - 1)), Scope.COMPILE, ExclusionContainer.empty()));
+        }
+        GAV rootGAV = new GAV(SyntheticRepository.GROUP, "root", MavenVersion.parse("1.0"));
+        DependencyLayer root = new DependencyLayer(null, Collections.singletonList(new DependencyLayerElement(rootGAV, null, null, ExclusionContainer.empty(), edges)));
+        resolver.resolveAllChildren(root, this.executor).get(1, TimeUnit.MINUTES);
+
+        for (DependencyLayer layer = root.getChild(); layer != null; layer = layer.getChild()) {
+            counter.poms += layer.elements.size();
+        }
+        return root;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.repository = new SyntheticRepository();
+        this.repository.bom = this.bom;
+        this.repository.depth = this.depth;
+        this.repository.fanOut = this.fanOut;
+        this.repository.parentDepth = this.parentDepth;
+        this.repository.ranges = this.ranges;
+        this.repository.versions = this.versions;
+        this.repository.width = this.width;
+        this.remote = Files.createTempDirectory("picoresolve-bench-remote");
+        this.repository.write(this.remote);
+
+        this.executor = Executors.newFixedThreadPool(this.threads, (runnable) -> {
+            Thread thread = new Thread(runnable, "picoresolve-bench-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.warmLocal = Files.createTempDirectory("picoresolve-bench-local");
+        this.warmResolver = new MavenResolver(this.warmLocal)
+                .addRepository(new URIMavenRepository("synthetic", this.remote.toUri()));
+        DependencyLayer layer = this.resolve(this.warmResolver, new ResolvedPoms());
+        int resolved = 0;
+        for (layer = layer.getChild(); layer != null; layer = layer.getChild()) {
+            resolved += layer.elements.size();
+        }
+        if (resolved != this.repository.size()) {
+            throw new IllegalStateException("Resolved " + resolved + " artifacts, but the synthetic repository consists of " + this.repository.size() + " artifacts");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.executor.shutdownNow();
+        SyntheticRepository.delete(this.warmLocal);
+        SyntheticRepository.delete(this.remote);
+    }
+
+    @Benchmark
+    public DependencyLayer warm(ResolvedPoms counter) throws Exception {
+        return this.resolve(this.warmResolver, counter);
+    }
+}
@@ -0,0 +1,226 @@
+package org.stianloader.picoresolve.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generates a maven repository on local disk whose dependency graph is shaped by a small set of knobs.
+ *
+ * <p>The graph consists of {@link #depth} layers of {@link #width} artifacts each. Every artifact of a layer
+ * depends on {@link #fanOut} artifacts of the next layer, the artifacts of the last layer have no dependencies.
+ * Each artifact is published in {@link #versions} versions, all of which are listed in the artifact's
+ * maven-metadata.xml. Every artifact POM inherits from a chain of {@link #parentDepth} parent POMs,
+ * the outermost of which defines the version of the dependencies through a property.
+ * If {@link #bom} is set, dependency versions are instead declared by a BOM which is imported
+ * by the dependencyManagement block of each artifact. If {@link #ranges} is set, dependencies are
+ * declared through version ranges instead of exact versions.
+ *
+ * <p>The generated layout is fully deterministic so that the numbers obtained from benchmarks
+ * are reproducible.
+ */
+final class SyntheticRepository {
+
+    static final String GROUP = "org.stianloader.picoresolve.synthetic";
+
+    static void delete(@NotNull Path directory) throws IOException {
+        if (Files.notExists(directory)) {
+            return;
+        }
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    boolean bom;
+    int depth = 4;
+    int fanOut = 3;
+    int parentDepth = 2;
+    boolean ranges;
+    int versions = 20;
+    int width = 8;
+
+    @NotNull
+    String artifactId(int layer, int index) {
+        return "artifact-" + layer + "-" + index;
+    }
+
+    @NotNull
+    private String dependencies(int layer, int index, boolean managed) {
+        if (layer + 1 >= this.depth) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append("    <dependencies>\n");
+        for (int i = 0; i < this.fanOut; i++) {
+            int target = (index * 31 + i * 7) % this.width;
+            builder.append("        <dependency>\n");
+            builder.append("            <groupId>").append(SyntheticRepository.GROUP).append("</groupId>\n");
+            builder.append("            <artifactId>").append(this.artifactId(layer + 1, target)).append("</artifactId>\n");
+            if (!managed) {
+                builder.append("            <version>").append(this.requestedVersion()).append("</version>\n");
+            }
+            builder.append("        </dependency>\n");
+        }
+        builder.append("    </dependencies>\n");
+        return builder.toString();
+    }
+
+    @NotNull
+    private String latestVersion() {
+        return "1." + (this.versions - 1);
+    }
+
+    @NotNull
+    private String requestedVersion() {
+        if (this.ranges) {
+            return "[1.0,2.0)";
+        }
+        return "${synthetic.version}";
+    }
+
+    /**
+     * Obtains the artifacts of the first layer, which are the artifacts that should be requested by the root
+     * element of the resolution.
+     *
+     * @return The artifact ids of the first layer
+     */
+    @NotNull
+    List<@NotNull String> roots() {
+        List<@NotNull String> roots = new ArrayList<>();
+        for (int i = 0; i < this.width; i++) {
+            roots.add(this.artifactId(0, i));
+        }
+        return roots;
+    }
+
+    /**
+     * Obtains the total amount of artifacts which are part of the dependency graph.
+     *
+     * @return The amount of POMs a full resolution needs to process, excluding parent POMs and BOMs.
+     */
+    int size() {
+        return this.depth * this.width;
+    }
+
+    void write(@NotNull Path root) throws IOException {
+        StringBuilder parentProperties = new StringBuilder();
+        parentProperties.append("    <properties>\n");
+        parentProperties.append("        <synthetic.version>").append(this.latestVersion()).append("</synthetic.version>\n");
+        parentProperties.append("    </properties>\n");
+
+        for (int i = 0; i < this.parentDepth; i++) {
+            String parent = i + 1 < this.parentDepth ? this.parentDeclaration("parent-" + (i + 1)) : "";
+            String body = i + 1 == this.parentDepth ? parentProperties.toString() : "";
+            this.writeArtifact(root, "parent-" + i, Math.min(this.versions, 1), parent + "    <packaging>pom</packaging>\n" + body);
+        }
+
+        if (this.bom) {
+            StringBuilder managed = new StringBuilder();
+            managed.append("    <packaging>pom</packaging>\n");
+            managed.append("    <dependencyManagement>\n");
+            managed.append("        <dependencies>\n");
+            for (int layer = 0; layer < this.depth; layer++) {
+                for (int index = 0; index < this.width; index++) {
+                    managed.append("            <dependency>\n");
+                    managed.append("                <groupId>").append(SyntheticRepository.GROUP).append("</groupId>\n");
+                    managed.append("                <artifactId>").append(this.artifactId(layer, index)).append("</artifactId>\n");
+                    managed.append("                <version>").append(this.latestVersion()).append("</version>\n");
+                    managed.append("            </dependency>\n");
+                }
+            }
+            managed.append("        </dependencies>\n");
+            managed.append("    </dependencyManagement>\n");
+            this.writeArtifact(root, "bom", 1, managed.toString());
+        }
+
+        for (int layer = 0; layer < this.depth; layer++) {
+            for (int index = 0; index < this.width; index++) {
+                StringBuilder body = new StringBuilder();
+                if (this.parentDepth > 0) {
+                    body.append(this.parentDeclaration("parent-0"));
+                }
+                if (this.bom) {
+                    body.append("    <dependencyManagement>\n");
+                    body.append("        <dependencies>\n");
+                    body.append("            <dependency>\n");
+                    body.append("                <groupId>").append(SyntheticRepository.GROUP).append("</groupId>\n");
+                    body.append("                <artifactId>bom</artifactId>\n");
+                    body.append("                <version>1.0</version>\n");
+                    body.append("                <type>pom</type>\n");
+                    body.append("                <scope>import</scope>\n");
+                    body.append("            </dependency>\n");
+                    body.append("        </dependencies>\n");
+                    body.append("    </dependencyManagement>\n");
+                } else if (this.parentDepth == 0 && !this.ranges) {
+                    body.append("    <properties>\n");
+                    body.append("        <synthetic.version>").append(this.latestVersion()).append("</synthetic.version>\n");
+                    body.append("    </properties>\n");
+                }
+                body.append(this.dependencies(layer, index, this.bom));
+                this.writeArtifact(root, this.artifactId(layer, index), this.versions, body.toString());
+            }
+        }
+    }
+
+    @NotNull
+    private String parentDeclaration(@NotNull String artifactId) {
+        return "    <parent>\n"
+                + "        <groupId>" + SyntheticRepository.GROUP + "</groupId>\n"
+                + "        <artifactId>" + artifactId + "</artifactId>\n"
+                + "        <version>1.0</version>\n"
+                + "    </parent>\n";
+    }
+
+    private void writeArtifact(@NotNull Path root, @NotNull String artifactId, int versionCount, @NotNull String body) throws IOException {
+        Path artifactDir = root.resolve(SyntheticRepository.GROUP.replace('.', '/')).resolve(artifactId);
+        StringBuilder metadata = new StringBuilder();
+        metadata.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n");
+        metadata.append("  <groupId>").append(SyntheticRepository.GROUP).append("</groupId>\n");
+        metadata.append("  <artifactId>").append(artifactId).append("</artifactId>\n");
+        metadata.append("  <versioning>\n");
+        metadata.append("    <latest>1.").append(versionCount - 1).append("</latest>\n");
+        metadata.append("    <release>1.").append(versionCount - 1).append("</release>\n");
+        metadata.append("    <versions>\n");
+
+        for (int v = 0; v < versionCount; v++) {
+            String version = "1." + v;
+            metadata.append("      <version>").append(version).append("</version>\n");
+            Path versionDir = artifactDir.resolve(version);
+            Files.createDirectories(versionDir);
+            String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                    + "    <modelVersion>4.0.0</modelVersion>\n"
+                    + body
+                    + "    <groupId>" + SyntheticRepository.GROUP + "</groupId>\n"
+                    + "    <artifactId>" + artifactId + "</artifactId>\n"
+                    + "    <version>" + version + "</version>\n"
+                    + "</project>\n";
+            Files.write(versionDir.resolve(artifactId + "-" + version + ".pom"), pom.getBytes(StandardCharsets.UTF_8));
+        }
+
+        metadata.append("    </versions>\n");
+        metadata.append("    <lastUpdated>20240101000000</lastUpdated>\n");
+        metadata.append("  </versioning>\n</metadata>\n");
+        Files.createDirectories(artifactDir);
+        Files.write(artifactDir.resolve("maven-metadata.xml"), metadata.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,60 @@
+package org.stianloader.picoresolve.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generates deterministic version histories that resemble the ones found in maven-metadata.xml files of
+ * long-lived artifacts: mostly numeric major.minor.patch versions, interspersed with pre-releases such as
+ * "-beta2" or "-rc1" and the occasional qualifier or date-based version.
+ */
+final class SyntheticVersions {
+
+    @NotNull
+    static List<@NotNull String> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<@NotNull String> versions = new ArrayList<>(count);
+        int major = 1;
+        int minor = 0;
+        int patch = 0;
+        while (versions.size() < count) {
+            String base = major + "." + minor + "." + patch;
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                versions.add(base + "-alpha" + (random.nextInt(3) + 1));
+            } else if (kind == 1) {
+                versions.add(base + "-beta" + (random.nextInt(3) + 1));
+            } else if (kind == 2) {
+                versions.add(base + "-rc" + (random.nextInt(3) + 1));
+            } else if (kind == 3) {
+                versions.add(base + ".Final");
+            } else if (kind == 4) {
+                versions.add(base + "-jre");
+            } else if (kind == 5) {
+                versions.add(major + "." + minor + "." + patch + ".v2023" + (1000 + random.nextInt(9000)));
+            } else {
+                versions.add(base);
+            }
+
+            int step = random.nextInt(10);
+            if (step == 0) {
+                major++;
+                minor = 0;
+                patch = 0;
+            } else if (step < 3) {
+                minor++;
+                patch = 0;
+            } else {
+                patch++;
+            }
+        }
+        return versions;
+    }
+
+    private SyntheticVersions() {
+        throw new UnsupportedOperationException();
+    }
+}
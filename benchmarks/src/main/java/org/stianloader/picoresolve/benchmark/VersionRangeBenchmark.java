@@ -0,0 +1,132 @@
+package org.stianloader.picoresolve.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.stianloader.picoresolve.version.MavenVersion;
+import org.stianloader.picoresolve.version.VersionRange;
+
+/**
+ * Benchmarks for parsing, intersecting and evaluating {@link VersionRange VersionRanges} against
+ * synthetic version catalogues of varying sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionRangeBenchmark {
+
+    private static final String @NotNull[] RANGES = {
+        "1.2.3",
+        "[1.0,)",
+        "[1.0,2.0)",
+        "(,3.5.1]",
+        "[2.1.0]",
+        "[1.5,4.0),[2.0,)",
+        "(1.0.0,1.0.5]"
+    };
+
+    @Param({"10", "500", "5000"})
+    public int catalogueSize;
+
+    /**
+     * The available versions in the order in which they are listed within the metadata file.
+     */
+    @NotNull
+    private List<@NotNull MavenVersion> available = Collections.emptyList();
+
+    /**
+     * The available versions in ascending order, as produced by merging version catalogues.
+     */
+    @NotNull
+    private List<@NotNull MavenVersion> sortedAvailable = Collections.emptyList();
+
+    private VersionRange @NotNull[] ranges = new VersionRange[0];
+
+    /**
+     * Ranges as requested by many declaring edges of the same artifact.
+     */
+    private VersionRange @NotNull[] edgeRanges = new VersionRange[0];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<@NotNull MavenVersion> available = new ArrayList<>();
+        for (String version : SyntheticVersions.generate(this.catalogueSize, 0x5EED)) {
+            available.add(MavenVersion.parse(version));
+        }
+        // Metadata files are not guaranteed to be sorted; shuffle deterministically to reflect that
+        Collections.shuffle(available, new Random(0x5EED));
+        this.available = available;
+        List<@NotNull MavenVersion> sorted = new ArrayList<>(available);
+        Collections.sort(sorted);
+        this.sortedAvailable = sorted;
+
+        this.ranges = new VersionRange[VersionRangeBenchmark.RANGES.length];
+        for (int i = 0; i < this.ranges.length; i++) {
+            this.ranges[i] = VersionRange.parse(VersionRangeBenchmark.RANGES[i]);
+        }
+
+        this.edgeRanges = new VersionRange[50];
+        for (int i = 0; i < this.edgeRanges.length; i++) {
+            this.edgeRanges[i] = VersionRange.parse("[1." + (i % 5) + ",)");
+        }
+    }
+
+    @Benchmark
+    public void containsVersion(Blackhole blackhole) {
+        for (VersionRange range : this.ranges) {
+            for (MavenVersion version : this.available) {
+                blackhole.consume(range.containsVersion(version));
+            }
+        }
+    }
+
+    @Benchmark
+    public VersionRange intersect() {
+        VersionRange range = VersionRange.FREE_RANGE;
+        for (VersionRange edge : this.edgeRanges) {
+            range = range.intersect(edge);
+        }
+        return range;
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String range : VersionRangeBenchmark.RANGES) {
+            blackhole.consume(VersionRange.parse(range));
+        }
+    }
+
+    @Benchmark
+    public void selectFrom(Blackhole blackhole) {
+        for (VersionRange range : this.ranges) {
+            blackhole.consume(range.selectFrom(this.available, null));
+        }
+    }
+
+    @Benchmark
+    public void selectFromSorted(Blackhole blackhole) {
+        for (VersionRange range : this.ranges) {
+            blackhole.consume(range.selectFromSorted(this.sortedAvailable, null));
+        }
+    }
+}
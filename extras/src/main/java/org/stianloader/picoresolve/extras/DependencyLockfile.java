@@ -0,0 +1,379 @@
+package org.stianloader.picoresolve.extras;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.Scope;
+import org.stianloader.picoresolve.exclusion.Excluder;
+import org.stianloader.picoresolve.exclusion.Exclusion;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer.ExclusionMode;
+import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
+import org.stianloader.picoresolve.version.MavenVersion;
+import org.stianloader.picoresolve.version.VersionRange;
+
+/**
+ * Reads and writes lockfiles, which store a chain of fully resolved {@link DependencyLayer DependencyLayers}
+ * (as obtained through {@link MavenResolver#resolveAllChildren(DependencyLayer, java.util.concurrent.Executor)})
+ * so that the graph can be restored later on without performing any resolution.
+ *
+ * <p>A lockfile is a UTF-8 encoded text file where each line holds a single record whose fields are separated
+ * by tabs. Empty lines and lines starting with '#' are ignored. The first record is the header,
+ * followed by the exclusion containers ("X" records), each of which may only reference containers declared before it.
+ * Afterwards, every layer is introduced by an "L" record, which is followed by the elements ("E" records) of the
+ * layer, each of which is followed by its outgoing edges ("D" records). Edges reference the element they
+ * are resolved to by the index of the layer and the index of the element within the layer.
+ *
+ * <p>Only {@link Exclusion} and {@link ExclusionContainer} can be stored, other {@link Excluder} implementations
+ * cause the graph to be rejected. The format is an implementation detail of picoresolve and may change
+ * without prior notice, in which case lockfiles written by older versions are rejected.
+ */
+public final class DependencyLockfile {
+
+    @NotNull
+    private static final String HEADER = "picoresolve-lockfile\t1";
+
+    @NotNull
+    private static IOException malformed(int lineNumber, @NotNull String message) {
+        return new IOException("Malformed lockfile at line " + lineNumber + ": " + message);
+    }
+
+    /**
+     * Reads the chain of dependency layers stored in a lockfile. All edges that were resolved at the time
+     * the lockfile was written are resolved again.
+     *
+     * @param reader The reader to read the lockfile from
+     * @return The first (root) layer of the chain
+     * @throws IOException If the lockfile could not be read or is malformed
+     */
+    @NotNull
+    public static DependencyLayer read(@NotNull BufferedReader reader) throws IOException {
+        class ElementRecord {
+            @NotNull
+            final GAV gav;
+            @Nullable
+            final String classifier;
+            @NotNull
+            final String type;
+            @NotNull
+            final ExclusionContainer<?> parentExclusions;
+            @NotNull
+            final List<DependencyEdge> edges = new ArrayList<>();
+            @NotNull
+            final List<@Nullable String> resolved = new ArrayList<>();
+
+            ElementRecord(@NotNull GAV gav, @Nullable String classifier, @NotNull String type, @NotNull ExclusionContainer<?> parentExclusions) {
+                this.gav = gav;
+                this.classifier = classifier;
+                this.type = type;
+                this.parentExclusions = parentExclusions;
+            }
+        }
+
+        Map<String, ExclusionContainer<?>> exclusions = new HashMap<>();
+        List<List<ElementRecord>> layers = new ArrayList<>();
+        ElementRecord currentElement = null;
+
+        boolean headerRead = false;
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            } else if (!headerRead) {
+                if (!line.equals(DependencyLockfile.HEADER)) {
+                    throw DependencyLockfile.malformed(lineNumber, "Unsupported lockfile header (was the lockfile written by a different version of picoresolve?)");
+                }
+                headerRead = true;
+                continue;
+            }
+
+            String[] fields = line.split("\t", -1);
+            switch (fields[0]) {
+            case "X": {
+                if (fields.length < 3) {
+                    throw DependencyLockfile.malformed(lineNumber, "Truncated exclusion record");
+                }
+                ExclusionMode mode;
+                try {
+                    mode = ExclusionMode.valueOf(fields[2]);
+                } catch (IllegalArgumentException e) {
+                    throw DependencyLockfile.malformed(lineNumber, "Invalid exclusion mode " + fields[2]);
+                }
+                List<Excluder> children = new ArrayList<>();
+                for (int i = 3; i < fields.length; i++) {
+                    String child = fields[i];
+                    if (child.startsWith("#")) {
+                        children.add(DependencyLockfile.lookupExclusions(exclusions, child, lineNumber));
+                    } else {
+                        int separator = child.indexOf(':');
+                        if (separator == -1) {
+                            throw DependencyLockfile.malformed(lineNumber, "Invalid exclusion " + child);
+                        }
+                        children.add(new Exclusion(child.substring(0, separator), child.substring(separator + 1)));
+                    }
+                }
+                exclusions.put('#' + fields[1], new ExclusionContainer<>(mode, children, false));
+                break;
+            }
+            case "L":
+                layers.add(new ArrayList<>());
+                currentElement = null;
+                break;
+            case "E":
+                if (fields.length != 7) {
+                    throw DependencyLockfile.malformed(lineNumber, "Expected 7 fields in element record, got " + fields.length);
+                } else if (layers.isEmpty()) {
+                    throw DependencyLockfile.malformed(lineNumber, "Element declared outside of a layer");
+                }
+                GAV gav = new GAV(fields[1], fields[2], MavenVersion.parse(fields[3]));
+                currentElement = new ElementRecord(gav, fields[4].isEmpty() ? null : fields[4], fields[5], DependencyLockfile.lookupExclusions(exclusions, fields[6], lineNumber));
+                layers.get(layers.size() - 1).add(currentElement);
+                break;
+            case "D": {
+                if (fields.length != 9) {
+                    throw DependencyLockfile.malformed(lineNumber, "Expected 9 fields in edge record, got " + fields.length);
+                } else if (currentElement == null) {
+                    throw DependencyLockfile.malformed(lineNumber, "Edge declared outside of an element");
+                }
+                Scope scope;
+                try {
+                    scope = Scope.valueOf(fields[6]);
+                } catch (IllegalArgumentException e) {
+                    throw DependencyLockfile.malformed(lineNumber, "Invalid scope " + fields[6]);
+                }
+                @SuppressWarnings("unchecked")
+                ExclusionContainer<Exclusion> edgeExclusion = (ExclusionContainer<Exclusion>) DependencyLockfile.lookupExclusions(exclusions, fields[7], lineNumber);
+                currentElement.edges.add(new DependencyEdge(fields[1], fields[2], fields[3].isEmpty() ? null : fields[3], fields[4], VersionRange.parse(fields[5]), scope, edgeExclusion));
+                currentElement.resolved.add(fields[8].isEmpty() ? null : fields[8]);
+                break;
+            }
+            default:
+                throw DependencyLockfile.malformed(lineNumber, "Unknown record type " + fields[0]);
+            }
+        }
+
+        if (layers.isEmpty()) {
+            throw new IOException("Malformed lockfile: No layers declared");
+        }
+
+        List<List<DependencyLayerElement>> elementLayers = new ArrayList<>(layers.size());
+        for (List<ElementRecord> records : layers) {
+            List<DependencyLayerElement> elements = new ArrayList<>(records.size());
+            for (ElementRecord record : records) {
+                elements.add(new DependencyLayerElement(record.gav, record.classifier, record.type, record.parentExclusions, Collections.unmodifiableList(record.edges)));
+            }
+            elementLayers.add(Collections.unmodifiableList(elements));
+        }
+
+        Map<DependencyEdge, DependencyLayerElement> resolutions = new IdentityHashMap<>();
+        for (List<ElementRecord> records : layers) {
+            for (ElementRecord record : records) {
+                for (int i = 0; i < record.resolved.size(); i++) {
+                    String reference = record.resolved.get(i);
+                    if (reference == null) {
+                        continue;
+                    }
+                    int separator = reference.indexOf('/');
+                    try {
+                        int layerIndex = Integer.parseInt(reference.substring(0, separator));
+                        int elementIndex = Integer.parseInt(reference.substring(separator + 1));
+                        resolutions.put(record.edges.get(i), elementLayers.get(layerIndex).get(elementIndex));
+                    } catch (RuntimeException e) {
+                        throw new IOException("Malformed lockfile: Invalid element reference " + reference + " in edge of " + record.gav, e);
+                    }
+                }
+            }
+        }
+
+        return DependencyLayer.restoreChain(elementLayers, resolutions);
+    }
+
+    /**
+     * Reads the chain of dependency layers stored in a lockfile.
+     *
+     * @param lockfile The path of the lockfile
+     * @return The first (root) layer of the chain
+     * @throws IOException If the lockfile could not be read or is malformed
+     * @see #read(BufferedReader)
+     */
+    @NotNull
+    public static DependencyLayer read(@NotNull Path lockfile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(lockfile, StandardCharsets.UTF_8)) {
+            return DependencyLockfile.read(reader);
+        }
+    }
+
+    /**
+     * Restores a dependency graph from a lockfile that was written using {@link #write(DependencyLayer, Path)},
+     * without resolving any dependencies. Consequently, the graph is restored as it was at the time of writing,
+     * regardless of the contents of the repositories.
+     *
+     * <p>If requested, the artifacts of all elements (except those of the root layer,
+     * which usually does not correspond to a real artifact) are fetched through
+     * {@link MavenResolver#download(GAV, String, String, Executor)}, using the type of the element as the extension.
+     * This means that artifacts which are absent from the local repository are downloaded from the remote repositories
+     * of the resolver, and the returned future completes exceptionally if any of them could not be obtained.
+     *
+     * @param resolver The resolver to fetch the artifacts with
+     * @param lockfile The path of the lockfile to read
+     * @param fetchArtifacts Whether to fetch the artifacts of the graph into the local repository
+     * @param executor The executor to use for reading the lockfile and fetching the artifacts
+     * @return A future that completes with the root layer of the restored graph
+     */
+    @NotNull
+    public static CompletableFuture<DependencyLayer> read(@NotNull MavenResolver resolver, @NotNull Path lockfile, boolean fetchArtifacts, @NotNull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return DependencyLockfile.read(lockfile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor).thenCompose((root) -> {
+            if (!fetchArtifacts) {
+                return CompletableFuture.completedFuture(root);
+            }
+            List<CompletableFuture<RepositoryAttachedValue<Path>>> downloads = new ArrayList<>();
+            for (DependencyLayer layer = root.getChild(); layer != null; layer = layer.getChild()) {
+                for (DependencyLayerElement element : layer.elements) {
+                    downloads.add(resolver.download(element.gav, element.classifier, element.type, executor));
+                }
+            }
+            return CompletableFuture.allOf(downloads.toArray(new CompletableFuture[0])).thenApply((ignore) -> root);
+        });
+    }
+
+    @NotNull
+    private static ExclusionContainer<?> lookupExclusions(@NotNull Map<String, ExclusionContainer<?>> exclusions, @NotNull String reference, int lineNumber) throws IOException {
+        ExclusionContainer<?> container = exclusions.get(reference);
+        if (container == null) {
+            throw DependencyLockfile.malformed(lineNumber, "Reference to undeclared exclusion container " + reference);
+        }
+        return container;
+    }
+
+    /**
+     * Writes the given layer and all of its (transitive) child layers to a lockfile.
+     * Parent layers of the given layer are not written.
+     *
+     * @param root The first layer to write
+     * @param lockfile The path of the lockfile, which is overwritten if it already exists
+     * @throws IOException If the lockfile could not be written
+     * @see #write(DependencyLayer, Writer)
+     */
+    public static void write(@NotNull DependencyLayer root, @NotNull Path lockfile) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(lockfile, StandardCharsets.UTF_8)) {
+            DependencyLockfile.write(root, writer);
+        }
+    }
+
+    /**
+     * Writes the given layer and all of its (transitive) child layers in the lockfile format.
+     * Parent layers of the given layer are not written. Edges which resolve to elements outside of the written layers
+     * are written as if they were unresolved.
+     *
+     * @param root The first layer to write
+     * @param writer The writer to write the lockfile to. The writer is not closed by this method
+     * @throws IOException If the lockfile could not be written
+     * @throws IllegalArgumentException If the graph contains an {@link Excluder} that can not be stored
+     */
+    public static void write(@NotNull DependencyLayer root, @NotNull Writer writer) throws IOException {
+        Map<DependencyLayerElement, String> elementReferences = new IdentityHashMap<>();
+        int layerIndex = 0;
+        for (DependencyLayer layer = root; layer != null; layer = layer.getChild()) {
+            int elementIndex = 0;
+            for (DependencyLayerElement element : layer.elements) {
+                elementReferences.put(element, layerIndex + "/" + elementIndex++);
+            }
+            layerIndex++;
+        }
+
+        Map<ExclusionContainer<?>, String> exclusionReferences = new IdentityHashMap<>();
+        StringBuilder exclusionRecords = new StringBuilder();
+        StringBuilder layerRecords = new StringBuilder();
+        for (DependencyLayer layer = root; layer != null; layer = layer.getChild()) {
+            layerRecords.append("L\n");
+            for (DependencyLayerElement element : layer.elements) {
+                String exclusions = DependencyLockfile.writeExclusions(element.parentExclusions, exclusionReferences, exclusionRecords);
+                layerRecords.append("E\t").append(element.gav.group())
+                    .append('\t').append(element.gav.artifact())
+                    .append('\t').append(element.gav.version().getOriginText())
+                    .append('\t').append(element.classifier == null ? "" : element.classifier)
+                    .append('\t').append(element.type)
+                    .append('\t').append(exclusions)
+                    .append('\n');
+                for (DependencyEdge edge : element.outgoingEdges) {
+                    exclusions = DependencyLockfile.writeExclusions(edge.edgeExclusion, exclusionReferences, exclusionRecords);
+                    String resolved = edge.isResolved() ? elementReferences.get(edge.getResolved()) : null;
+                    layerRecords.append("D\t").append(edge.group)
+                        .append('\t').append(edge.artifact)
+                        .append('\t').append(edge.classifier == null ? "" : edge.classifier)
+                        .append('\t').append(edge.type)
+                        .append('\t').append(edge.requestedVersion.toSpecification())
+                        .append('\t').append(edge.scope.name())
+                        .append('\t').append(exclusions)
+                        .append('\t').append(resolved == null ? "" : resolved)
+                        .append('\n');
+                }
+            }
+        }
+
+        writer.write("#NOTE: This file was written by picoresolve, its format can be changed without prior notice.\n");
+        writer.write(DependencyLockfile.HEADER);
+        writer.write('\n');
+        writer.append(exclusionRecords);
+        writer.append(layerRecords);
+        writer.flush();
+    }
+
+    @NotNull
+    private static String writeExclusions(@NotNull ExclusionContainer<?> container, @NotNull Map<ExclusionContainer<?>, String> references, @NotNull StringBuilder out) {
+        String reference = references.get(container);
+        if (reference != null) {
+            return reference;
+        }
+
+        StringBuilder record = new StringBuilder();
+        for (Excluder child : container.getChildren()) {
+            record.append('\t');
+            if (child instanceof ExclusionContainer) {
+                record.append(DependencyLockfile.writeExclusions((ExclusionContainer<?>) child, references, out));
+            } else if (child instanceof Exclusion) {
+                record.append(((Exclusion) child).getGroup()).append(':').append(((Exclusion) child).getArtifact());
+            } else {
+                throw new IllegalArgumentException("Unable to store excluders of type " + child.getClass().getName() + " in a lockfile.");
+            }
+        }
+
+        String id = Integer.toString(references.size());
+        reference = '#' + id;
+        references.put(container, reference);
+        out.append("X\t").append(id).append('\t').append(container.getMode().name()).append(record).append('\n');
+        return reference;
+    }
+
+    private DependencyLockfile() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,285 @@
+package org.stianloader.picoresolve.extras;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.PersistentNodeStore;
+import org.stianloader.picoresolve.Scope;
+import org.stianloader.picoresolve.exclusion.Exclusion;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer.ExclusionMode;
+import org.stianloader.picoresolve.version.MavenVersion;
+import org.stianloader.picoresolve.version.VersionRange;
+
+/**
+ * A {@link PersistentNodeStore} which stores the nodes in a binary format, one file per node, in a directory tree
+ * that follows the layout of maven repositories. A sensible choice for the directory is a subdirectory of the maven
+ * local repository, for example "mavenLocal/.picoresolve/nodes".
+ *
+ * <p>Each entry records the coordinates and the SHA-1 hashes of all POMs which contributed to the node, so that the entry
+ * is discarded once any of them change. Entries further record the settings of the resolver that affect the contents
+ * of the node.
+ */
+public class PersistentNodeCache implements PersistentNodeStore {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final int MAGIC = 0x7069636e; // "picn"
+
+    static byte @NotNull[] hash(@NotNull Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-1 not supported by the JVM", e);
+        }
+        byte[] buffer = new byte[4096];
+        try (InputStream is = Files.newInputStream(file)) {
+            for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Computes the hashes of the POMs with the given coordinates, in the order of the coordinates.
+     *
+     * @param resolver The resolver to obtain the POMs with
+     * @param poms The coordinates of the POMs
+     * @param executor The executor to use for obtaining the POMs
+     * @return A future that completes with the hashes of the POMs
+     */
+    @NotNull
+    private static CompletableFuture<List<byte @NotNull[]>> hashPoms(@NotNull MavenResolver resolver, @NotNull List<@NotNull GAV> poms, @NotNull Executor executor) {
+        List<CompletableFuture<byte @NotNull[]>> futures = new ArrayList<>(poms.size());
+        for (GAV pom : poms) {
+            futures.add(resolver.download(pom, null, "pom", executor).thenApply((rav) -> {
+                try {
+                    return PersistentNodeCache.hash(rav.getValue());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply((ignore) -> {
+            List<byte @NotNull[]> hashes = new ArrayList<>(futures.size());
+            for (CompletableFuture<byte @NotNull[]> future : futures) {
+                hashes.add(future.join());
+            }
+            return hashes;
+        });
+    }
+
+    @Nullable
+    private static String readNullableUTF(@NotNull DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @NotNull
+    private static GAV readGAV(@NotNull DataInputStream in) throws IOException {
+        return new GAV(in.readUTF(), in.readUTF(), MavenVersion.parse(in.readUTF()));
+    }
+
+    private static void writeGAV(@NotNull DataOutputStream out, @NotNull GAV gav) throws IOException {
+        out.writeUTF(gav.group());
+        out.writeUTF(gav.artifact());
+        out.writeUTF(gav.version().getOriginText());
+    }
+
+    private static void writeNullableUTF(@NotNull DataOutputStream out, @Nullable String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null) {
+            out.writeUTF(string);
+        }
+    }
+
+    @NotNull
+    private final Path directory;
+
+    public PersistentNodeCache(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    @NotNull
+    private Path getPath(@NotNull GAV gav) {
+        String version = gav.version().getOriginText();
+        return this.directory.resolve(gav.group().replace('.', '/'))
+                .resolve(gav.artifact())
+                .resolve(version)
+                .resolve(gav.artifact() + '-' + version + ".node");
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<@Nullable List<@NotNull DependencyEdge>> load(@NotNull MavenResolver resolver, @NotNull GAV gav, int settings, @NotNull Executor executor) {
+        List<@NotNull GAV> contributors = new ArrayList<>();
+        List<byte @NotNull[]> hashes = new ArrayList<>();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.read(gav, settings, contributors, hashes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor).thenCompose((dependencies) -> {
+            if (dependencies == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return PersistentNodeCache.hashPoms(resolver, contributors, executor).handle((currentHashes, ex) -> {
+                if (ex != null || currentHashes.size() != hashes.size()) {
+                    return null;
+                }
+                for (int i = 0; i < hashes.size(); i++) {
+                    if (!Arrays.equals(hashes.get(i), currentHashes.get(i))) {
+                        return null;
+                    }
+                }
+                return dependencies;
+            });
+        });
+    }
+
+    /**
+     * Reads the cache entry of the node with the given coordinates. Whether the entry is still current
+     * needs to be checked by the caller using the returned hashes.
+     *
+     * @param gav The coordinates of the node
+     * @param settings The resolver settings that affect the contents of the node
+     * @param contributors The list to add the coordinates of the contributing POMs to
+     * @param hashes The list to add the hashes of the contributing POMs to, in the order of the contributors
+     * @return The dependencies of the node, or null if there is no entry or if the entry was written using different settings
+     * @throws IOException If the entry could not be read or is corrupt
+     */
+    @Nullable
+    private List<@NotNull DependencyEdge> read(@NotNull GAV gav, int settings, @NotNull List<@NotNull GAV> contributors, @NotNull List<byte @NotNull[]> hashes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.getPath(gav))))) {
+            if (in.readInt() != PersistentNodeCache.MAGIC || in.readInt() != PersistentNodeCache.FORMAT_VERSION || in.readInt() != settings) {
+                return null;
+            }
+            if (!PersistentNodeCache.readGAV(in).equals(gav)) {
+                return null;
+            }
+
+            int contributorCount = in.readInt();
+            for (int i = 0; i < contributorCount; i++) {
+                contributors.add(PersistentNodeCache.readGAV(in));
+                byte[] hash = new byte[in.readUnsignedByte()];
+                in.readFully(hash);
+                hashes.add(hash);
+            }
+
+            int dependencyCount = in.readInt();
+            List<@NotNull DependencyEdge> dependencies = new ArrayList<>(dependencyCount);
+            for (int i = 0; i < dependencyCount; i++) {
+                String group = in.readUTF();
+                String artifact = in.readUTF();
+                String classifier = PersistentNodeCache.readNullableUTF(in);
+                String type = in.readUTF();
+                VersionRange version = VersionRange.parse(in.readUTF());
+                Scope scope = Scope.valueOf(in.readUTF());
+                ExclusionMode mode = ExclusionMode.valueOf(in.readUTF());
+                int exclusionCount = in.readInt();
+                List<@NotNull Exclusion> exclusions = new ArrayList<>(exclusionCount);
+                for (int j = 0; j < exclusionCount; j++) {
+                    exclusions.add(new Exclusion(PersistentNodeCache.readNullableUTF(in), PersistentNodeCache.readNullableUTF(in)));
+                }
+                dependencies.add(new DependencyEdge(group, artifact, classifier, type, version, scope, new ExclusionContainer<>(mode, exclusions, false)));
+            }
+            return dependencies;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt node cache entry for " + gav, e);
+        }
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<Void> store(@NotNull MavenResolver resolver, @NotNull GAV gav, int settings, @NotNull List<@NotNull GAV> contributors, @NotNull List<@NotNull DependencyEdge> dependencies, @NotNull Executor executor) {
+        return PersistentNodeCache.hashPoms(resolver, contributors, executor).thenAcceptAsync((hashes) -> {
+            try {
+                this.write(gav, settings, contributors, hashes, dependencies);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Writes a cache entry, replacing any existing entry for the same node.
+     *
+     * @param gav The coordinates of the node
+     * @param settings The resolver settings that affect the contents of the node
+     * @param contributors The coordinates of the contributing POMs
+     * @param hashes The hashes of the contributing POMs, in the order of the contributors
+     * @param dependencies The dependencies of the node
+     * @throws IOException If the entry could not be written
+     */
+    private void write(@NotNull GAV gav, int settings, @NotNull List<@NotNull GAV> contributors, @NotNull List<byte @NotNull[]> hashes, @NotNull List<@NotNull DependencyEdge> dependencies) throws IOException {
+        Path path = this.getPath(gav);
+        Files.createDirectories(path.getParent());
+        // Write to a temporary file first, so that other threads or processes never observe partially written entries
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(PersistentNodeCache.MAGIC);
+                out.writeInt(PersistentNodeCache.FORMAT_VERSION);
+                out.writeInt(settings);
+                PersistentNodeCache.writeGAV(out, gav);
+
+                out.writeInt(contributors.size());
+                for (int i = 0; i < contributors.size(); i++) {
+                    PersistentNodeCache.writeGAV(out, contributors.get(i));
+                    byte[] hash = hashes.get(i);
+                    out.writeByte(hash.length);
+                    out.write(hash);
+                }
+
+                out.writeInt(dependencies.size());
+                for (DependencyEdge dependency : dependencies) {
+                    out.writeUTF(dependency.group);
+                    out.writeUTF(dependency.artifact);
+                    PersistentNodeCache.writeNullableUTF(out, dependency.classifier);
+                    out.writeUTF(dependency.type);
+                    out.writeUTF(dependency.requestedVersion.toSpecification());
+                    out.writeUTF(dependency.scope.name());
+                    out.writeUTF(dependency.edgeExclusion.getMode().name());
+                    out.writeInt(dependency.edgeExclusion.getChildren().size());
+                    for (Exclusion exclusion : dependency.edgeExclusion.getChildren()) {
+                        PersistentNodeCache.writeNullableUTF(out, exclusion.getGroup());
+                        PersistentNodeCache.writeNullableUTF(out, exclusion.getArtifact());
+                    }
+                }
+            }
+
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
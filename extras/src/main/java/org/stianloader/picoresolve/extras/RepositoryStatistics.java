@@ -0,0 +1,349 @@
+package org.stianloader.picoresolve.extras;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.MavenRepository;
+import org.stianloader.picoresolve.repo.RepositoryRanking;
+
+/**
+ * A {@link RepositoryRanking} which ranks repositories by statistics about their latency and their hit rate.
+ * The statistics are collected per repository and group prefix (that is the first two segments of the group id,
+ * for example "org.apache") as well as per repository regardless of the group. When a file is requested,
+ * the candidate repositories are queried in the order of their expected cost, which is the expected time needed
+ * to obtain the file from them. Repositories that rarely or never contain files of a group prefix thus end up
+ * being queried last. Once enough requests were recorded, the next repository is queried once a request
+ * takes longer than 95% of the previous successful requests to the repository.
+ *
+ * <p>Statistics obtained through {@link #persistent(Path)} are written back to their file shortly after they change,
+ * so that they survive restarts. This file is specific to picoresolve and is not used by the maven resolver.
+ * All methods of this class are thread-safe.
+ *
+ * @see MavenLocalRepositoryNegotiator#setRepositoryRanking(RepositoryRanking)
+ */
+public class RepositoryStatistics implements RepositoryRanking {
+
+    private static class Entry {
+        private long hits;
+        private final long[] latencies = new long[RepositoryStatistics.BUCKET_COUNT];
+        private long misses;
+
+        private void decay() {
+            if (this.hits + this.misses <= RepositoryStatistics.MAX_SAMPLES) {
+                return;
+            }
+            // Halve all counters so that old observations are eventually forgotten
+            this.hits /= 2;
+            this.misses /= 2;
+            for (int i = 0; i < this.latencies.length; i++) {
+                this.latencies[i] /= 2;
+            }
+        }
+
+        private double getExpectedCost() {
+            long latencyCount = 0;
+            double latencySum = 0;
+            for (int i = 0; i < this.latencies.length; i++) {
+                latencyCount += this.latencies[i];
+                latencySum += this.latencies[i] * 1.5D * (1L << i); // Middle of the bucket
+            }
+            double latency = latencyCount == 0 ? RepositoryStatistics.DEFAULT_LATENCY : latencySum / latencyCount;
+            double hitRate = (this.hits + 1D) / (this.hits + this.misses + 2D);
+            return latency / hitRate;
+        }
+
+        private long getLatencyPercentile(double percentile) {
+            long latencyCount = 0;
+            for (long count : this.latencies) {
+                latencyCount += count;
+            }
+            if (latencyCount == 0) {
+                return -1;
+            }
+            long cumulative = 0;
+            for (int i = 0; i < this.latencies.length; i++) {
+                cumulative += this.latencies[i];
+                if (cumulative >= percentile * latencyCount) {
+                    return 1L << (i + 1); // Upper bound of the bucket
+                }
+            }
+            return 1L << RepositoryStatistics.BUCKET_COUNT;
+        }
+    }
+
+    /**
+     * The amount of latency buckets. Bucket {@code i} counts latencies between 2<sup>i</sup> (inclusive)
+     * and 2<sup>i + 1</sup> (exclusive) milliseconds, the last bucket counts all larger latencies, too.
+     */
+    private static final int BUCKET_COUNT = 20;
+    private static final double DEFAULT_LATENCY = 1000D;
+    private static final long MAX_SAMPLES = 256;
+    private static final long MIN_SAMPLES = 8;
+
+    /**
+     * The delay between a change of persistent statistics and the statistics being written, in milliseconds.
+     * All changes made within the delay are written at once.
+     */
+    private static final long WRITE_DELAY = 1000L;
+
+    private static class TimerHolder {
+        @NotNull
+        private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor((task) -> {
+            Thread thread = new Thread(task, "picoresolve-statistics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Nullable
+    public static String getGroupPrefix(@NotNull String path) {
+        // The path is in the format of "group/artifact/version/file", where group can contain several slashes
+        String[] segments = path.split("/");
+        int groupSegments = Math.min(2, segments.length - 3);
+        if (groupSegments <= 0) {
+            return null;
+        }
+        return segments[0] + (groupSegments == 2 ? '.' + segments[1] : "");
+    }
+
+    @NotNull
+    private static String getKey(@NotNull String repoId, @Nullable String groupPrefix) {
+        return repoId + '/' + (groupPrefix == null ? "" : groupPrefix);
+    }
+
+    /**
+     * Reads the statistics stored in a file and writes them back to the file whenever they change.
+     * Writes are delayed by a short amount of time, so that the file is written only once for a burst of requests.
+     * Pending writes are lost should the JVM exit before they are performed, unless {@link #flush()} is called.
+     *
+     * @param file The file to read the statistics from and to write them to, for example
+     * "mavenLocal/picoresolve-repository-statistics.properties"
+     * @return The statistics
+     */
+    @NotNull
+    public static RepositoryStatistics persistent(@NotNull Path file) {
+        RepositoryStatistics statistics = RepositoryStatistics.tryParse(file);
+        statistics.file = file;
+        return statistics;
+    }
+
+    @NotNull
+    public static RepositoryStatistics tryParse(@NotNull Path src) {
+        RepositoryStatistics f = new RepositoryStatistics();
+        if (Files.notExists(src)) {
+            return f;
+        }
+        Properties prop = new Properties();
+        try (InputStream is = Files.newInputStream(src)) {
+            prop.load(is);
+        } catch (IOException ignored) {
+            ignored.printStackTrace();
+            return f;
+        }
+        prop.forEach((key, value) -> {
+            String keyString = key.toString();
+            int dotIndex = keyString.lastIndexOf('.');
+            if (dotIndex == -1 || keyString.lastIndexOf('/', dotIndex) == -1) {
+                return;
+            }
+            Entry entry = f.entries.computeIfAbsent(keyString.substring(0, dotIndex), (ignored) -> new Entry());
+            String action = keyString.substring(dotIndex + 1);
+            try {
+                if (action.equals("hits")) {
+                    entry.hits = Long.parseLong(value.toString());
+                } else if (action.equals("misses")) {
+                    entry.misses = Long.parseLong(value.toString());
+                } else if (action.equals("latencies")) {
+                    String[] counts = value.toString().split(",");
+                    for (int i = 0; i < counts.length && i < entry.latencies.length; i++) {
+                        entry.latencies[i] = Long.parseLong(counts[i].trim());
+                    }
+                }
+            } catch (NumberFormatException ignored) {
+                // Malformed statistics are not worth failing over
+            }
+        });
+        return f;
+    }
+
+    @NotNull
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Map<String, Entry> entries = new HashMap<>();
+    @Nullable
+    private volatile Path file;
+
+    @Nullable
+    private Entry getEntry(@NotNull String repoId, @Nullable String groupPrefix) {
+        Entry entry = this.entries.get(RepositoryStatistics.getKey(repoId, groupPrefix));
+        if (entry != null && entry.hits + entry.misses >= RepositoryStatistics.MIN_SAMPLES) {
+            return entry;
+        }
+        entry = this.entries.get(RepositoryStatistics.getKey(repoId, null));
+        if (entry != null && entry.hits + entry.misses >= RepositoryStatistics.MIN_SAMPLES) {
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Writes pending changes to the file the statistics were read from, should the statistics have been
+     * obtained through {@link #persistent(Path)}. Does nothing otherwise.
+     */
+    public void flush() {
+        Path file = this.file;
+        if (file != null && this.dirty.compareAndSet(true, false)) {
+            this.write(file);
+        }
+    }
+
+    /**
+     * Obtains the expected time needed to obtain a file from a repository, taking into account that the file
+     * might not be present in the repository. Repositories with a lower cost should be preferred.
+     * If not enough requests were recorded, a cost of 0 is returned so that such repositories are queried
+     * first in order to learn more about them.
+     *
+     * @param repoId The {@link org.stianloader.picoresolve.repo.MavenRepository#getRepositoryId() id} of the repository
+     * @param groupPrefix The group prefix of the file as returned by {@link #getGroupPrefix(String)}
+     * @return The expected cost of a request
+     */
+    public synchronized double getExpectedCost(@NotNull String repoId, @Nullable String groupPrefix) {
+        Entry entry = this.getEntry(repoId, groupPrefix);
+        return entry == null ? 0D : entry.getExpectedCost();
+    }
+
+    /**
+     * Estimates a percentile of the latency of successful requests to a repository.
+     *
+     * @param repoId The {@link org.stianloader.picoresolve.repo.MavenRepository#getRepositoryId() id} of the repository
+     * @param groupPrefix The group prefix of the file as returned by {@link #getGroupPrefix(String)}
+     * @param percentile The percentile, between 0 and 1
+     * @return The estimated latency in milliseconds, or -1 if not enough requests were recorded
+     */
+    public synchronized long getLatencyPercentile(@NotNull String repoId, @Nullable String groupPrefix, double percentile) {
+        Entry entry = this.getEntry(repoId, groupPrefix);
+        return entry == null ? -1 : entry.getLatencyPercentile(percentile);
+    }
+
+    @Override
+    public long getHedgingDelay(@NotNull String path, @NotNull MavenRepository repository) {
+        return this.getLatencyPercentile(repository.getRepositoryId(), RepositoryStatistics.getGroupPrefix(path), 0.95D);
+    }
+
+    private void markDirty() {
+        if (this.file != null && this.dirty.compareAndSet(false, true)) {
+            RepositoryStatistics.TimerHolder.TIMER.schedule(() -> {
+                try {
+                    this.flush();
+                } catch (RuntimeException ignored) {
+                    // The statistics are merely a performance aid, failing to write them is not worth reporting
+                }
+            }, RepositoryStatistics.WRITE_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void rank(@NotNull String path, @NotNull List<MavenRepository> candidates) {
+        String groupPrefix = RepositoryStatistics.getGroupPrefix(path);
+        Map<MavenRepository, Double> costs = new IdentityHashMap<>();
+        for (MavenRepository remote : candidates) {
+            costs.put(remote, this.getExpectedCost(remote.getRepositoryId(), groupPrefix));
+        }
+        // The sort is stable, so that repositories of equal cost are still queried in the order they were added in
+        candidates.sort(Comparator.comparingDouble(costs::get));
+    }
+
+    @Override
+    public void recordHit(@NotNull String path, @NotNull MavenRepository repository, long latency) {
+        this.recordHit(repository.getRepositoryId(), RepositoryStatistics.getGroupPrefix(path), latency);
+    }
+
+    private void recordHit(@NotNull String repoId, @Nullable String groupPrefix, long latency) {
+        int bucket = Math.min(RepositoryStatistics.BUCKET_COUNT - 1, 63 - Long.numberOfLeadingZeros(Math.max(1, latency)));
+        synchronized (this) {
+            for (String key : new String[] {RepositoryStatistics.getKey(repoId, null), RepositoryStatistics.getKey(repoId, groupPrefix)}) {
+                Entry entry = this.entries.computeIfAbsent(key, (ignored) -> new Entry());
+                entry.hits++;
+                entry.latencies[bucket]++;
+                entry.decay();
+                if (groupPrefix == null) {
+                    break;
+                }
+            }
+        }
+        this.markDirty();
+    }
+
+    @Override
+    public void recordMiss(@NotNull String path, @NotNull MavenRepository repository) {
+        this.recordMiss(repository.getRepositoryId(), RepositoryStatistics.getGroupPrefix(path));
+    }
+
+    private void recordMiss(@NotNull String repoId, @Nullable String groupPrefix) {
+        synchronized (this) {
+            for (String key : new String[] {RepositoryStatistics.getKey(repoId, null), RepositoryStatistics.getKey(repoId, groupPrefix)}) {
+                Entry entry = this.entries.computeIfAbsent(key, (ignored) -> new Entry());
+                entry.misses++;
+                entry.decay();
+                if (groupPrefix == null) {
+                    break;
+                }
+            }
+        }
+        this.markDirty();
+    }
+
+    public void write(@NotNull Path out) {
+        Properties props = new Properties();
+        synchronized (this) {
+            this.entries.forEach((key, entry) -> {
+                props.put(key + ".hits", Long.toString(entry.hits));
+                props.put(key + ".misses", Long.toString(entry.misses));
+                StringBuilder latencies = new StringBuilder();
+                for (int i = 0; i < entry.latencies.length; i++) {
+                    if (i != 0) {
+                        latencies.append(',');
+                    }
+                    latencies.append(entry.latencies[i]);
+                }
+                props.put(key + ".latencies", latencies.toString());
+            });
+        }
+        try {
+            // The file is shared by all artifacts, so it is written atomically to not lose it if another process reads it concurrently
+            Path temp = out.resolveSibling(out.getFileName().toString() + "." + UUID.randomUUID() + ".tmp");
+            try {
+                try (OutputStream os = Files.newOutputStream(temp)) {
+                    props.store(os, "NOTE: This file was written by picoresolve, its format can be changed without prior notice.");
+                }
+                try {
+                    Files.move(temp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, out, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.stianloader.picoresolve.extras.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
+import org.stianloader.picoresolve.Scope;
+import org.stianloader.picoresolve.extras.DependencyLockfile;
+import org.stianloader.picoresolve.version.VersionRange;
+
+public class DependencyLockfileTest {
+
+    private static final String LOCKFILE = "#NOTE: This file was written by picoresolve, its format can be changed without prior notice.\n"
+            + "picoresolve-lockfile\t1\n"
+            + "X\t0\tALL\n"
+            + "X\t1\tANY\tcom.example:excluded\n"
+            + "X\t2\tANY\t#0\t#1\n"
+            + "X\t3\tALL\t#2\n"
+            + "L\n"
+            + "E\tcom.example\troot\t0\t\tjar\t#0\n"
+            + "D\tcom.example\tapp\t\tjar\t1.0\tCOMPILE\t#1\t1/0\n"
+            + "D\tcom.example\tlib\tsources\tjar\t[1.0,2.0)\tRUNTIME\t#0\t1/1\n"
+            + "L\n"
+            + "E\tcom.example\tapp\t1.0\t\tjar\t#3\n"
+            + "D\tcom.example\tlib\tsources\tjar\t(,1.5]\tCOMPILE\t#0\t1/1\n"
+            + "D\tcom.example\tmissing\t\tpom\tRELEASE\tTEST\t#0\t\n"
+            + "E\tcom.example\tlib\t1.5\tsources\tjar\t#0\n";
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        DependencyLayer root = DependencyLockfile.read(new BufferedReader(new StringReader(LOCKFILE)));
+
+        StringWriter writer = new StringWriter();
+        DependencyLockfile.write(root, writer);
+        assertEquals(LOCKFILE, writer.toString());
+
+        DependencyLayer child = root.getChild();
+        assertEquals(2, child.elements.size());
+        assertNull(child.getChild());
+
+        DependencyLayerElement app = child.elements.get(0);
+        DependencyLayerElement lib = child.elements.get(1);
+        assertEquals("1.0", app.gav.version().getOriginText());
+        assertEquals("sources", lib.classifier);
+        assertTrue(app.parentExclusions.isExcluding("com.example", "excluded"));
+        assertFalse(lib.parentExclusions.isExcluding("com.example", "excluded"));
+
+        DependencyEdge appEdge = root.elements.get(0).outgoingEdges.get(0);
+        assertSame(app, appEdge.getResolved());
+        assertTrue(appEdge.edgeExclusion.isExcluding("com.example", "excluded"));
+        assertSame(lib, root.elements.get(0).outgoingEdges.get(1).getResolved());
+        assertSame(lib, app.outgoingEdges.get(0).getResolved());
+        assertEquals(Scope.RUNTIME, root.elements.get(0).outgoingEdges.get(1).scope);
+
+        DependencyEdge missing = app.outgoingEdges.get(1);
+        assertFalse(missing.isResolved());
+        assertSame(VersionRange.RELEASE, missing.requestedVersion);
+        assertEquals("pom", missing.type);
+    }
+
+    @Test
+    public void testRejectMalformed() {
+        assertThrows(IOException.class, () -> DependencyLockfile.read(new BufferedReader(new StringReader("picoresolve-lockfile\t0\nL\n"))));
+        assertThrows(IOException.class, () -> DependencyLockfile.read(new BufferedReader(new StringReader(LOCKFILE.replace("1/1", "1/2")))));
+        assertThrows(IOException.class, () -> DependencyLockfile.read(new BufferedReader(new StringReader(LOCKFILE.replace("#3", "#4")))));
+    }
+}
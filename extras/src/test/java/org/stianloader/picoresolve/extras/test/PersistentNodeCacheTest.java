@@ -0,0 +1,211 @@
+package org.stianloader.picoresolve.extras.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.PersistentNodeStore;
+import org.stianloader.picoresolve.Scope;
+import org.stianloader.picoresolve.exclusion.Exclusion;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer.ExclusionMode;
+import org.stianloader.picoresolve.extras.PersistentNodeCache;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.version.MavenVersion;
+import org.stianloader.picoresolve.version.VersionRange;
+
+public class PersistentNodeCacheTest {
+
+    private static final String GROUP = "com.example";
+
+    private static void writePom(@NotNull Path repository, @NotNull String artifact, @NotNull String version, @NotNull String body) throws IOException {
+        Path directory = repository.resolve(PersistentNodeCacheTest.GROUP.replace('.', '/')).resolve(artifact).resolve(version);
+        Files.createDirectories(directory);
+        String pom = "<project>\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n"
+                + "    <groupId>" + PersistentNodeCacheTest.GROUP + "</groupId>\n"
+                + "    <artifactId>" + artifact + "</artifactId>\n"
+                + "    <version>" + version + "</version>\n"
+                + body
+                + "</project>\n";
+        Files.write(directory.resolve(artifact + "-" + version + ".pom"), pom.getBytes(StandardCharsets.UTF_8));
+        String metadata = "<metadata>\n"
+                + "  <groupId>" + PersistentNodeCacheTest.GROUP + "</groupId>\n"
+                + "  <artifactId>" + artifact + "</artifactId>\n"
+                + "  <versioning>\n"
+                + "    <release>" + version + "</release>\n"
+                + "    <versions><version>" + version + "</version></versions>\n"
+                + "  </versioning>\n"
+                + "</metadata>\n";
+        Files.write(directory.getParent().resolve("maven-metadata.xml"), metadata.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @NotNull
+    private static String bomImport(@NotNull String version) {
+        return "    <dependencyManagement><dependencies><dependency>\n"
+                + "        <groupId>" + PersistentNodeCacheTest.GROUP + "</groupId>\n"
+                + "        <artifactId>bom</artifactId>\n"
+                + "        <version>" + version + "</version>\n"
+                + "        <type>pom</type>\n"
+                + "        <scope>import</scope>\n"
+                + "    </dependency></dependencies></dependencyManagement>\n"
+                + "    <dependencies><dependency>\n"
+                + "        <groupId>" + PersistentNodeCacheTest.GROUP + "</groupId>\n"
+                + "        <artifactId>lib</artifactId>\n"
+                + "    </dependency></dependencies>\n";
+    }
+
+    @TempDir
+    Path temp;
+
+    private ExecutorService executor;
+    private PersistentNodeCache cache;
+    private Path local;
+    private Path remote;
+    private MavenResolver resolver;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        this.executor = Executors.newFixedThreadPool(4);
+        this.remote = this.temp.resolve("remote");
+        this.local = this.temp.resolve("local");
+        this.cache = new PersistentNodeCache(this.temp.resolve("nodes"));
+        this.resolver = new MavenResolver(this.local).addRepository(new URIMavenRepository("test", this.remote.toUri()));
+
+        PersistentNodeCacheTest.writePom(this.remote, "lib", "1.0", "");
+        PersistentNodeCacheTest.writePom(this.remote, "bom", "1.0", "    <packaging>pom</packaging>\n"
+                + "    <dependencyManagement><dependencies><dependency>\n"
+                + "        <groupId>" + PersistentNodeCacheTest.GROUP + "</groupId>\n"
+                + "        <artifactId>lib</artifactId>\n"
+                + "        <version>1.0</version>\n"
+                + "    </dependency></dependencies></dependencyManagement>\n");
+        PersistentNodeCacheTest.writePom(this.remote, "pinned", "1.0", PersistentNodeCacheTest.bomImport("1.0"));
+        PersistentNodeCacheTest.writePom(this.remote, "ranged", "1.0", PersistentNodeCacheTest.bomImport("[1.0,2.0)"));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @NotNull
+    private List<@NotNull DependencyEdge> sampleDependencies() {
+        List<Exclusion> exclusions = Arrays.asList(new Exclusion("com.example", "excluded"), new Exclusion("*", "any"));
+        return Arrays.asList(
+                new DependencyEdge(PersistentNodeCacheTest.GROUP, "lib", null, "jar", VersionRange.parse("1.0"), Scope.COMPILE, ExclusionContainer.empty()),
+                new DependencyEdge(PersistentNodeCacheTest.GROUP, "other", "sources", "zip", VersionRange.parse("[1.0,2.0)"), Scope.RUNTIME, new ExclusionContainer<>(ExclusionMode.ANY, exclusions, false)));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        GAV gav = new GAV(PersistentNodeCacheTest.GROUP, "lib", MavenVersion.parse("1.0"));
+        List<@NotNull DependencyEdge> dependencies = this.sampleDependencies();
+        this.cache.store(this.resolver, gav, 0, Collections.singletonList(gav), dependencies, this.executor).join();
+
+        List<@NotNull DependencyEdge> loaded = this.cache.load(this.resolver, gav, 0, this.executor).join();
+        assertNotNull(loaded);
+        assertEquals(dependencies.size(), loaded.size());
+        for (int i = 0; i < dependencies.size(); i++) {
+            DependencyEdge expected = dependencies.get(i);
+            DependencyEdge actual = loaded.get(i);
+            assertEquals(expected.group, actual.group);
+            assertEquals(expected.artifact, actual.artifact);
+            assertEquals(expected.classifier, actual.classifier);
+            assertEquals(expected.type, actual.type);
+            assertEquals(expected.requestedVersion.toSpecification(), actual.requestedVersion.toSpecification());
+            assertEquals(expected.scope, actual.scope);
+            assertEquals(expected.edgeExclusion.getMode(), actual.edgeExclusion.getMode());
+            assertEquals(expected.edgeExclusion.getChildren().size(), actual.edgeExclusion.getChildren().size());
+        }
+        assertTrue(loaded.get(1).edgeExclusion.isExcluding("com.example", "excluded"));
+        assertTrue(loaded.get(1).edgeExclusion.isExcluding("org.example", "any"));
+
+        assertNull(this.cache.load(this.resolver, new GAV(PersistentNodeCacheTest.GROUP, "lib", MavenVersion.parse("2.0")), 0, this.executor).join());
+    }
+
+    @Test
+    public void testSettingsMismatch() {
+        GAV gav = new GAV(PersistentNodeCacheTest.GROUP, "lib", MavenVersion.parse("1.0"));
+        this.cache.store(this.resolver, gav, PersistentNodeStore.IGNORE_TEST_DEPENDENCIES, Collections.singletonList(gav), this.sampleDependencies(), this.executor).join();
+        assertNotNull(this.cache.load(this.resolver, gav, PersistentNodeStore.IGNORE_TEST_DEPENDENCIES, this.executor).join());
+        assertNull(this.cache.load(this.resolver, gav, 0, this.executor).join());
+        assertNull(this.cache.load(this.resolver, gav, PersistentNodeStore.IGNORE_TEST_DEPENDENCIES | PersistentNodeStore.IGNORE_OPTIONAL_DEPENDENCIES, this.executor).join());
+    }
+
+    @Test
+    public void testChangedContributor() throws IOException {
+        GAV gav = new GAV(PersistentNodeCacheTest.GROUP, "pinned", MavenVersion.parse("1.0"));
+        GAV bom = new GAV(PersistentNodeCacheTest.GROUP, "bom", MavenVersion.parse("1.0"));
+        this.cache.store(this.resolver, gav, 0, Arrays.asList(gav, bom), this.sampleDependencies(), this.executor).join();
+        assertNotNull(this.cache.load(this.resolver, gav, 0, this.executor).join());
+
+        // Alter the copy of the BOM in the local repository, as that is the copy the resolver hands out
+        Path bomFile = this.resolver.download(bom, null, "pom", this.executor).join().getValue();
+        Files.write(bomFile, "<project/>\n".getBytes(StandardCharsets.UTF_8));
+        assertNull(this.cache.load(this.resolver, gav, 0, this.executor).join());
+    }
+
+    @Test
+    public void testRangedImportNotPersisted() throws Exception {
+        Set<String> stored = ConcurrentHashMap.newKeySet();
+        this.resolver.setPersistentNodeStore(new PersistentNodeStore() {
+            @Override
+            @NotNull
+            public CompletableFuture<@Nullable List<@NotNull DependencyEdge>> load(@NotNull MavenResolver resolver, @NotNull GAV gav, int settings, @NotNull Executor executor) {
+                return PersistentNodeCacheTest.this.cache.load(resolver, gav, settings, executor);
+            }
+
+            @Override
+            @NotNull
+            public CompletableFuture<Void> store(@NotNull MavenResolver resolver, @NotNull GAV gav, int settings, @NotNull List<@NotNull GAV> contributors, @NotNull List<@NotNull DependencyEdge> dependencies, @NotNull Executor executor) {
+                stored.add(gav.artifact());
+                return PersistentNodeCacheTest.this.cache.store(resolver, gav, settings, contributors, dependencies, executor);
+            }
+        });
+
+        List<DependencyEdge> edges = new ArrayList<>();
+        edges.add(new DependencyEdge(PersistentNodeCacheTest.GROUP, "pinned", null, "jar", VersionRange.parse("1.0"), Scope.COMPILE, ExclusionContainer.empty()));
+        edges.add(new DependencyEdge(PersistentNodeCacheTest.GROUP, "ranged", null, "jar", VersionRange.parse("1.0"), Scope.COMPILE, ExclusionContainer.empty()));
+        GAV rootGAV = new GAV(PersistentNodeCacheTest.GROUP, "root", MavenVersion.parse("1.0"));
+        DependencyLayer root = new DependencyLayer(null, Collections.singletonList(new DependencyLayerElement(rootGAV, null, null, ExclusionContainer.empty(), edges)));
+        this.resolver.resolveAllChildren(root, this.executor).get(1, TimeUnit.MINUTES);
+
+        DependencyLayer child = root.getChild();
+        assertNotNull(child);
+        assertNotNull(child.getChild());
+        assertEquals("lib", child.getChild().elements.get(0).gav.artifact());
+        assertTrue(stored.contains("pinned"));
+        assertTrue(stored.contains("lib"));
+        assertFalse(stored.contains("ranged"));
+    }
+}
@@ -0,0 +1,158 @@
+package org.stianloader.picoresolve.extras.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.extras.RepositoryStatistics;
+import org.stianloader.picoresolve.repo.MavenRepository;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+public class RepositoryStatisticsTest {
+
+    private static final String PATH = "org/example/lib/1.0/lib-1.0.jar";
+    private static final String OTHER_PATH = "com/example/lib/1.0/lib-1.0.jar";
+    private static final String UNGROUPED_PATH = "lib/1.0/lib-1.0.jar";
+
+    private static final MavenRepository OTHER = new URIMavenRepository("other", URI.create("https://other.example.com/"));
+    private static final MavenRepository REPO = new URIMavenRepository("repo", URI.create("https://repo.example.com/"));
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testGroupPrefix() {
+        assertEquals("org.example", RepositoryStatistics.getGroupPrefix(RepositoryStatisticsTest.PATH));
+        assertEquals("org.example", RepositoryStatistics.getGroupPrefix("org/example/sub/lib/1.0/lib-1.0.jar"));
+        assertEquals("example", RepositoryStatistics.getGroupPrefix("example/lib/1.0/lib-1.0.jar"));
+        assertNull(RepositoryStatistics.getGroupPrefix("lib/1.0/lib-1.0.jar"));
+    }
+
+    @Test
+    public void testDecay() {
+        RepositoryStatistics statistics = new RepositoryStatistics();
+        for (int i = 0; i < 256; i++) {
+            statistics.recordMiss(RepositoryStatisticsTest.PATH, RepositoryStatisticsTest.REPO);
+        }
+        for (int i = 0; i < 2000; i++) {
+            statistics.recordHit(RepositoryStatisticsTest.PATH, RepositoryStatisticsTest.REPO, 16);
+        }
+        // Without decay, the misses would still make up more than a tenth of all requests
+        // and the cost would be 30. With decay, the misses are forgotten and only the latency (24) remains.
+        double cost = statistics.getExpectedCost("repo", "org.example");
+        assertTrue(cost > 24D && cost < 25D, "Unexpected cost " + cost);
+    }
+
+    @Test
+    public void testLatencyPercentile() {
+        RepositoryStatistics statistics = new RepositoryStatistics();
+        for (int i = 0; i < 7; i++) {
+            statistics.recordHit(RepositoryStatisticsTest.PATH, RepositoryStatisticsTest.REPO, 10);
+        }
+        // Not enough samples
+        assertEquals(-1, statistics.getLatencyPercentile("repo", "org.example", 0.5D));
+        statistics.recordHit(RepositoryStatisticsTest.PATH, RepositoryStatisticsTest.REPO, 1000);
+
+        // The upper bounds of the [8, 16) and [512, 1024) buckets
+        assertEquals(16, statistics.getLatencyPercentile("repo", "org.example", 0.5D));
+        assertEquals(16, statistics.getLatencyPercentile("repo", "org.example", 0.875D));
+        assertEquals(1024, statistics.getLatencyPercentile("repo", "org.example", 0.95D));
+        assertEquals(-1, statistics.getLatencyPercentile("other", "org.example", 0.5D));
+    }
+
+    @Test
+    public void testFallback() {
+        RepositoryStatistics statistics = new RepositoryStatistics();
+        for (int i = 0; i < 8; i++) {
+            statistics.recordHit(RepositoryStatisticsTest.PATH, RepositoryStatisticsTest.REPO, 10);
+        }
+        statistics.recordMiss(RepositoryStatisticsTest.OTHER_PATH, RepositoryStatisticsTest.REPO);
+
+        // The single request of com.example is not enough, so the statistics of the entire repository are used
+        assertEquals(statistics.getExpectedCost("repo", null), statistics.getExpectedCost("repo", "com.example"));
+        assertEquals(16, statistics.getLatencyPercentile("repo", "com.example", 0.5D));
+
+        for (int i = 0; i < 8; i++) {
+            statistics.recordMiss(RepositoryStatisticsTest.OTHER_PATH, RepositoryStatisticsTest.REPO);
+        }
+        assertTrue(statistics.getExpectedCost("repo", "com.example") > statistics.getExpectedCost("repo", "org.example"));
+        assertEquals(0D, statistics.getExpectedCost("other", "com.example"));
+    }
+
+    @Test
+    public void testRanking() {
+        MavenRepository missing = new URIMavenRepository("missing", URI.create("https://missing.example.com/"));
+        MavenRepository slow = new URIMavenRepository("slow", URI.create("https://slow.example.com/"));
+        MavenRepository fast = new URIMavenRepository("fast", URI.create("https://fast.example.com/"));
+        MavenRepository unknown = new URIMavenRepository("unknown", URI.create("https://unknown.example.com/"));
+
+        RepositoryStatistics statistics = new RepositoryStatistics();
+        for (int i = 0; i < 16; i++) {
+            statistics.recordMiss(RepositoryStatisticsTest.PATH, missing);
+            statistics.recordHit(RepositoryStatisticsTest.PATH, slow, 1000);
+            statistics.recordHit(RepositoryStatisticsTest.PATH, fast, 10);
+        }
+
+        List<MavenRepository> candidates = new ArrayList<>(Arrays.asList(missing, slow, fast, unknown));
+        statistics.rank(RepositoryStatisticsTest.PATH, candidates);
+        // Repositories without statistics come first so that they can be learnt about
+        assertEquals(Arrays.asList(unknown, fast, slow, missing), candidates);
+
+        assertEquals(16, statistics.getHedgingDelay(RepositoryStatisticsTest.PATH, fast));
+        assertEquals(-1, statistics.getHedgingDelay(RepositoryStatisticsTest.PATH, unknown));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Path file = this.temp.resolve("statistics.properties");
+        RepositoryStatistics statistics = new RepositoryStatistics();
+        for (int i = 0; i < 10; i++) {
+            statistics.recordHit(RepositoryStatisticsTest.PATH, RepositoryStatisticsTest.REPO, 10 * i);
+            statistics.recordMiss(RepositoryStatisticsTest.OTHER_PATH, RepositoryStatisticsTest.REPO);
+            statistics.recordMiss(RepositoryStatisticsTest.UNGROUPED_PATH, RepositoryStatisticsTest.OTHER);
+        }
+        statistics.write(file);
+
+        RepositoryStatistics read = RepositoryStatistics.tryParse(file);
+        for (String repoId : new String[] {"repo", "other"}) {
+            for (String groupPrefix : new String[] {"org.example", "com.example", null}) {
+                assertEquals(statistics.getExpectedCost(repoId, groupPrefix), read.getExpectedCost(repoId, groupPrefix));
+                assertEquals(statistics.getLatencyPercentile(repoId, groupPrefix, 0.5D), read.getLatencyPercentile(repoId, groupPrefix, 0.5D));
+            }
+        }
+        assertEquals(0D, RepositoryStatistics.tryParse(this.temp.resolve("absent.properties")).getExpectedCost("repo", null));
+    }
+
+    @Test
+    public void testPersistence() throws IOException, InterruptedException {
+        Path file = this.temp.resolve("statistics.properties");
+        RepositoryStatistics statistics = RepositoryStatistics.persistent(file);
+        for (int i = 0; i < 8; i++) {
+            statistics.recordHit(RepositoryStatisticsTest.UNGROUPED_PATH, RepositoryStatisticsTest.REPO, 10);
+        }
+        // Writes are delayed, so that a burst of requests only causes a single write
+        assertFalse(Files.exists(file));
+        statistics.flush();
+        assertEquals(16, RepositoryStatistics.tryParse(file).getLatencyPercentile("repo", null, 0.5D));
+
+        // Later changes are written without flushing once the delay elapsed
+        statistics.recordMiss(RepositoryStatisticsTest.UNGROUPED_PATH, RepositoryStatisticsTest.REPO);
+        double expected = statistics.getExpectedCost("repo", null);
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (RepositoryStatistics.tryParse(file).getExpectedCost("repo", null) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertEquals(expected, RepositoryStatistics.tryParse(file).getExpectedCost("repo", null));
+    }
+}
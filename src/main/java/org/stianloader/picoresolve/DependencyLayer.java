@@ -1,6 +1,10 @@
 package org.stianloader.picoresolve;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -40,6 +44,52 @@ public class DependencyLayer {
         return this.child;
     }
 
+    /**
+     * Creates a chain of dependency layers whose edges are already resolved, without performing any resolution.
+     * This is meant for restoring a previously resolved graph, for example from a lockfile.
+     * Each list of elements forms a layer, where the first list corresponds to the root layer of the chain.
+     *
+     * @param layers The elements of every layer of the chain, starting with the root layer
+     * @param resolutions The elements the edges resolve to, keyed by the identity of the edges. Edges which are not present in the map stay unresolved
+     * @return The root layer of the chain
+     * @throws IllegalArgumentException If no layers are given, or if a resolved edge is not declared by or resolved to an element of the chain
+     * @throws IllegalStateException If an element already belongs to a layer or if an edge is already resolved
+     */
+    @NotNull
+    public static DependencyLayer restoreChain(@NotNull List<@NotNull List<@NotNull DependencyLayerElement>> layers, @NotNull Map<@NotNull DependencyEdge, @NotNull DependencyLayerElement> resolutions) {
+        if (layers.isEmpty()) {
+            throw new IllegalArgumentException("At least one layer is required");
+        }
+
+        Set<DependencyLayerElement> chainElements = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<DependencyLayerElement> elements : layers) {
+            chainElements.addAll(elements);
+        }
+        for (Map.Entry<DependencyEdge, DependencyLayerElement> resolution : resolutions.entrySet()) {
+            DependencyEdge edge = resolution.getKey();
+            if (edge.declarer == null || !chainElements.contains(edge.declarer)) {
+                throw new IllegalArgumentException("Edge " + edge + " is not declared by an element of the chain");
+            } else if (!chainElements.contains(resolution.getValue())) {
+                throw new IllegalArgumentException("Edge " + edge + " resolves to " + resolution.getValue() + ", which is not part of the chain");
+            } else if (edge.resolved != null) {
+                throw new IllegalStateException("Edge is already resolved!");
+            }
+        }
+
+        DependencyLayer root = null;
+        DependencyLayer previous = null;
+        for (List<DependencyLayerElement> elements : layers) {
+            previous = new DependencyLayer(previous, elements);
+            if (root == null) {
+                root = previous;
+            }
+        }
+        for (Map.Entry<DependencyEdge, DependencyLayerElement> resolution : resolutions.entrySet()) {
+            resolution.getKey().resolve(resolution.getValue());
+        }
+        return root;
+    }
+
     public static class DependencyLayerElement {
         @Nullable
         private DependencyLayer layer;
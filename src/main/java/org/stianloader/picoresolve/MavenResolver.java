@@ -9,33 +9,36 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyContainerNode.SubdependencyNode;
 import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
 import org.stianloader.picoresolve.DependencyManagementTree.DependencyManagementNode;
+import org.stianloader.picoresolve.exclusion.Excluder;
 import org.stianloader.picoresolve.exclusion.Exclusion;
 import org.stianloader.picoresolve.exclusion.ExclusionContainer;
 import org.stianloader.picoresolve.exclusion.ExclusionContainer.ExclusionMode;
 import org.stianloader.picoresolve.internal.ConcurrencyUtil;
 import org.stianloader.picoresolve.internal.JavaInterop;
+import org.stianloader.picoresolve.internal.LRUCache;
+import org.stianloader.picoresolve.internal.ProjectObjectModel;
+import org.stianloader.picoresolve.internal.ProjectObjectModel.DependencyDeclaration;
+import org.stianloader.picoresolve.internal.ProjectObjectModel.ExclusionDeclaration;
+import org.stianloader.picoresolve.internal.ProjectObjectModel.ParentDeclaration;
 import org.stianloader.picoresolve.internal.StronglyMultiCompletableFuture;
-import org.stianloader.picoresolve.internal.XMLUtil;
-import org.stianloader.picoresolve.internal.XMLUtil.ChildElementIterable;
 import org.stianloader.picoresolve.internal.meta.VersionCatalogue;
 import org.stianloader.picoresolve.internal.meta.VersionCatalogue.SnapshotVersion;
 import org.stianloader.picoresolve.logging.LoggingAdapter;
@@ -45,16 +48,159 @@ import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
 import org.stianloader.picoresolve.repo.RepositoryNegotiatior;
 import org.stianloader.picoresolve.version.MavenVersion;
 import org.stianloader.picoresolve.version.VersionRange;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 public class MavenResolver {
 
+    /**
+     * The default maximum amount of dependency nodes that are kept in memory by a {@link MavenResolver} instance.
+     *
+     * @see #setDependencyCacheCapacity(int)
+     */
+    public static final int DEFAULT_DEPENDENCY_CACHE_CAPACITY = 4096;
+
+    /**
+     * The default maximum amount of parsed POMs that are kept in memory by a {@link MavenResolver} instance.
+     *
+     * @see #setPomCacheCapacity(int)
+     */
+    public static final int DEFAULT_POM_CACHE_CAPACITY = 1024;
+
+    /**
+     * The default maximum amount of merged version catalogues (that is the list of available versions of an artifact)
+     * that are kept in memory by a {@link MavenResolver} instance.
+     *
+     * @see #setVersionCacheCapacity(int)
+     */
+    public static final int DEFAULT_VERSION_CACHE_CAPACITY = 1024;
+
+    /**
+     * The POMs which contributed to an assembled dependency node, as recorded for the {@link PersistentNodeStore}.
+     */
+    private static class NodeContributors {
+        /**
+         * The coordinates of the POM of the artifact, its parent POMs, the imported BOMs and their parent POMs.
+         */
+        @NotNull
+        final Set<@NotNull GAV> poms = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Whether a BOM was imported through a version range, in which case the node may change without any
+         * of its contributing POMs changing.
+         */
+        volatile boolean rangedImport;
+    }
+
+    private static class CachedVersionCatalogue {
+        @NotNull
+        final CompletableFuture<VersionCatalogue> catalogue = new CompletableFuture<>();
+
+        /**
+         * The time (as per {@link System#currentTimeMillis()}) after which the cached catalogue should no longer be used.
+         * Pending lookups never expire.
+         */
+        volatile long expiry = Long.MAX_VALUE;
+    }
+
+    /**
+     * An element of a previously resolved graph that may be reused by
+     * {@link MavenResolver#resolveAllChildrenIncrementally(DependencyLayer, DependencyLayer, Executor)}.
+     */
+    private static class ReusableElement {
+        @NotNull
+        final DependencyLayerElement element;
+
+        /**
+         * The {@link VersionRange#toSpecification() specification} of the range that was negotiated for the element.
+         */
+        @NotNull
+        final String negotiatedRange;
+
+        ReusableElement(@NotNull DependencyLayerElement element, @NotNull String negotiatedRange) {
+            this.element = element;
+            this.negotiatedRange = negotiatedRange;
+        }
+
+        /**
+         * Creates a copy of the element with the given exclusions applied. As the outgoing edges of the previous
+         * element might already have been filtered by its exclusions, this is only possible if the exclusions of the previous
+         * element do not exclude anything.
+         *
+         * @param exclusions The exclusions of the new element
+         * @return The new element, or null if the element can not be copied
+         */
+        @Nullable
+        DependencyLayerElement copy(@NotNull ExclusionContainer<?> exclusions) {
+            if (!MavenResolver.isNeverExcluding(this.element.parentExclusions)) {
+                return null;
+            }
+            List<DependencyEdge> edges = new ArrayList<>();
+            for (DependencyEdge edge : this.element.outgoingEdges) {
+                if (exclusions.isExcluding(edge.group, edge.artifact)) {
+                    continue;
+                }
+                edges.add(new DependencyEdge(edge.group, edge.artifact, edge.classifier, edge.type, edge.requestedVersion, edge.scope, edge.edgeExclusion));
+            }
+            return new DependencyLayerElement(this.element.gav, this.element.classifier, this.element.type, exclusions, Collections.unmodifiableList(edges));
+        }
+    }
+
+    /**
+     * The state of the speculative fetches of a single resolution, see {@link MavenResolver#pipelinedResolution}.
+     */
+    private static class Speculation {
+        /**
+         * The artifacts which were already speculated on (or resolved).
+         */
+        @NotNull
+        final Set<VersionlessDependency> speculated = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The maximum amount of layers that may be fetched ahead of a resolved node.
+         */
+        final int depth;
+
+        /**
+         * Whether the resolution has completed, in which case no further speculative fetches should be started.
+         */
+        volatile boolean completed;
+
+        Speculation(int depth) {
+            this.depth = depth;
+        }
+    }
+
     // TODO test tree resolving capabilities with https://repo1.maven.org/maven2/org/alfasoftware/astra/2.1.1/astra-2.1.1.pom
-    // TODO cache VersionCatalogue objects
-    // TODO cache poms
     private final RepositoryNegotiatior negotiator;
-    private final ConcurrentMap<GAV, DependencyContainerNode> depdenencyCache = new ConcurrentHashMap<>();
+
+    /**
+     * Cache of fully assembled dependency nodes. As with {@link #pomCache}, the futures are stored so that
+     * concurrent requests for the same node are only computed once. Exceptionally completed futures are evicted,
+     * as are the nodes of SNAPSHOT versions once they are assembled.
+     */
+    @NotNull
+    private final LRUCache<GAV, CompletableFuture<DependencyContainerNode>> depdenencyCache = new LRUCache<>(MavenResolver.DEFAULT_DEPENDENCY_CACHE_CAPACITY);
+
+    /**
+     * Store of dependency nodes that persists across JVM instances, or null if no such store should be used.
+     *
+     * @see #setPersistentNodeStore(PersistentNodeStore)
+     */
+    @Nullable
+    private volatile PersistentNodeStore persistentNodeStore;
+
+    /**
+     * Cache of parsed POMs. Storing the futures instead of the parsed POMs themselves means that concurrent
+     * requests for the same POM (as is common for popular parent POMs) share a single download and parse.
+     * POMs of SNAPSHOT versions are evicted once they are parsed.
+     */
+    @NotNull
+    private final LRUCache<GAV, CompletableFuture<ProjectObjectModel>> pomCache = new LRUCache<>(MavenResolver.DEFAULT_POM_CACHE_CAPACITY);
+
+    /**
+     * Cache of merged version catalogues, keyed by "group:artifact".
+     */
+    @NotNull
+    private final LRUCache<String, CachedVersionCatalogue> versionCache = new LRUCache<>(MavenResolver.DEFAULT_VERSION_CACHE_CAPACITY);
 
     @NotNull
     private LoggingAdapter logger = LoggingAdapter.getDefaultLogger();
@@ -63,6 +209,9 @@ public class MavenResolver {
      * Whether to pretend that dependencies with the "test" scope did not exist. This may significantly improve lookup speeds,
      * while in most cases not having any significant drawbacks due to the fact that usually you'd not want to resolve
      * the artifacts a dependency uses to test itself.
+     *
+     * <p>Dependency nodes are cached by the resolver, so changes to this flag only take effect for nodes that were
+     * not yet resolved - unless {@link #clearDependencyCache()} is called.
      */
     public boolean ignoreTestDependencies = true;
 
@@ -70,9 +219,50 @@ public class MavenResolver {
      * Whether to pretend that dependencies marked as "optional" do not exist. This may significantly improve lookup speeds,
      * while in most cases mirroring standard maven behaviour and being without drawbacks. However it may have drawbacks
      * when it comes to version negotiation.
+     *
+     * <p>Dependency nodes are cached by the resolver, so changes to this flag only take effect for nodes that were
+     * not yet resolved - unless {@link #clearDependencyCache()} is called.
      */
     public boolean ignoreOptionalDependencies = true;
 
+    /**
+     * Whether {@link #resolveAllChildren(DependencyLayer, Executor)} should speculatively fetch the dependencies of
+     * a resolved artifact as soon as it is resolved, instead of waiting for the entire layer to be resolved.
+     * The speculative fetches only consider the version range requested by the individual dependency edge,
+     * while the actual version negotiation still happens layer by layer. The speculation thus only
+     * warms up the caches of the resolver and does not alter the outcome of the resolution.
+     *
+     * <p>As such, enabling this option means that a single slow download no longer stalls the download of the
+     * remaining dependency graph, at the cost of potentially downloading files that end up not being used (for example
+     * because a different version ends up being selected or because the artifact was already resolved at a lower depth).
+     * In accordance with the core design philosophies of picoresolve, this option is enabled by default.
+     *
+     * <p>The speculation is bounded by {@link #pipelinedResolutionDepth} and no further speculative fetches
+     * are started once the resolution has completed.
+     */
+    public boolean pipelinedResolution = true;
+
+    /**
+     * The maximum amount of layers that {@link #pipelinedResolution pipelined resolution} may fetch ahead of a resolved
+     * artifact. A depth of 1 only fetches the direct dependencies of the artifact, a depth of 2 further fetches
+     * the dependencies of these dependencies and so on. Higher values may hide more latency, but also waste more
+     * downloads when the speculation does not match the outcome of the version negotiation. A depth of 0 disables
+     * the speculation.
+     */
+    public int pipelinedResolutionDepth = 2;
+
+    /**
+     * Whether the POM of the recommended version of a version range (that is the version "1.2.3" for the
+     * range "1.2.3") should be downloaded in parallel to the maven-metadata.xml files of the artifact.
+     * For the common case of dependencies declared using plain versions, the recommended version
+     * is the version that ends up being selected, which means that this saves one round trip for every
+     * dependency edge. Should another version be selected, the prefetched POM is left unused
+     * in the POM cache (see {@link #setPomCacheCapacity(int)}), from where it is evicted like any other POM.
+     *
+     * <p>In accordance with the core design philosophies of picoresolve, this option is enabled by default.
+     */
+    public boolean prefetchRecommendedVersions = true;
+
     public MavenResolver(@NotNull Path mavenLocal) {
         this(mavenLocal, null);
     }
@@ -107,7 +297,7 @@ public class MavenResolver {
 
     public CompletableFuture<RepositoryAttachedValue<Path>> download(@NotNull GAV gav, @Nullable String classifier, @NotNull String extension, @NotNull Executor executor) {
         CompletableFuture<RepositoryAttachedValue<Path>> resource;
-        if (gav.version().getOriginText().toLowerCase(Locale.ROOT).endsWith("-snapshot")) {
+        if (MavenResolver.isSnapshot(gav)) {
             resource = this.downloadSnapshot(gav, classifier, extension, executor);
         } else {
             resource = ConcurrencyUtil.configureFallback(downloadSimple(gav, classifier, extension, executor), () -> {
@@ -117,6 +307,10 @@ public class MavenResolver {
         return resource;
     }
 
+    private static boolean isSnapshot(@NotNull GAV gav) {
+        return gav.version().getOriginText().toLowerCase(Locale.ROOT).endsWith("-snapshot");
+    }
+
     @NotNull
     private static String applyPlaceholders(@NotNull String string, int startIndex, @NotNull Map<String, String> placeholders) {
         int indexStart = string.indexOf("${", startIndex);
@@ -142,8 +336,8 @@ public class MavenResolver {
         return MavenResolver.applyPlaceholders(string, 0, placeholders);
     }
 
-    private static void extractProperties(@NotNull Document project, @NotNull GAV gav, Map<String, String> out) {
-        for (Element elem : new ChildElementIterable(project.getDocumentElement())) {
+    private static void extractProperties(@NotNull ProjectObjectModel project, @NotNull GAV gav, Map<String, String> out) {
+        for (String elem : project.emptyElements) {
             // See https://maven.apache.org/pom.html#properties (retrieved SEPT 18th 2022 18:19 CEST)
             // "project.x: A dot (.) notated path in the POM will contain the corresponding element's value."
 
@@ -155,35 +349,92 @@ public class MavenResolver {
             // Defines that "pom.x" and "x" are allowed, even if they are discouraged (which does not prevent people from actually using them).
             // TODO as above document documents, implement "project.basedir", "project.baseUri" and "maven.build.timestamp".
             // Latter would be interesting...
-            if (!elem.hasChildNodes()) {
-                out.put("project." + elem.getTagName(), elem.getTextContent());
-                out.put("pom." + elem.getTagName(), elem.getTextContent());
-                out.put(elem.getTagName(), elem.getTextContent());
-            }
-        }
-        Element properties = XMLUtil.optElement(project.getDocumentElement(), "properties");
-        if (properties != null) {
-            for (Element prop : new ChildElementIterable(properties)) {
-                out.put(prop.getTagName(), prop.getTextContent());
-            }
+            out.put("project." + elem, "");
+            out.put("pom." + elem, "");
+            out.put(elem, "");
         }
+        out.putAll(project.properties);
     }
 
     @NotNull
-    private CompletableFuture<Document> downloadPom(@NotNull GAV gav, @NotNull Executor executor) {
-        return download(gav, null, "pom", executor).thenApply((pathRAV) -> {
-            try {
-                Document xmlDoc;
-                {
-                    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-                    xmlDoc = factory.newDocumentBuilder().parse(Files.newInputStream(pathRAV.getValue()));
-                }
-                return xmlDoc;
+    private CompletableFuture<ProjectObjectModel> downloadPom(@NotNull GAV gav, @NotNull Executor executor) {
+        CompletableFuture<ProjectObjectModel> future = new CompletableFuture<>();
+        CompletableFuture<ProjectObjectModel> cached = this.pomCache.putIfAbsent(gav, future);
+        if (cached != null) {
+            return cached;
+        }
+
+        this.download(gav, null, "pom", executor).thenApply((pathRAV) -> {
+            try (InputStream is = Files.newInputStream(pathRAV.getValue())) {
+                return new ProjectObjectModel(is);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
+        }).whenComplete((project, ex) -> {
+            if (ex == null) {
+                if (MavenResolver.isSnapshot(gav)) {
+                    // SNAPSHOT versions can be republished at any time, so only concurrent requests share the POM
+                    this.pomCache.remove(gav, future);
+                }
+                future.complete(project);
+                this.prefetchReferencedPoms(gav, project, executor);
+            } else {
+                // Do not cache failures, they might be caused by temporary issues.
+                this.pomCache.remove(gav, future);
+                future.completeExceptionally(ex);
+            }
         });
+
+        return future;
+    }
+
+    /**
+     * Starts downloading the parent POM and all BOMs imported by the dependencyManagement block of a freshly
+     * downloaded POM, without waiting for the remainder of the parent chain to be known.
+     * As the placeholders defined by the parent chain are not yet known at this point, only the placeholders
+     * defined by the POM itself are applied and coordinates that still contain placeholders afterwards are skipped.
+     * The downloads only populate the POM cache, the actual dependency management tree is still assembled from
+     * the full parent chain by {@link #getDependencyManagementTree(Executor, List, int, Collection)}. Failures are ignored
+     * for the same reason.
+     *
+     * <p>As this method is invoked for every POM that is downloaded (including the ones downloaded by this method),
+     * the entire parent and BOM import graph of a POM is discovered without the individual chains waiting on each other.
+     *
+     * @param gav The coordinates of the downloaded POM
+     * @param project The downloaded POM
+     * @param executor The executor to use for the downloads
+     */
+    private void prefetchReferencedPoms(@NotNull GAV gav, @NotNull ProjectObjectModel project, @NotNull Executor executor) {
+        ParentDeclaration parent = project.parent;
+        if (parent != null && parent.groupId != null && parent.artifactId != null && parent.version != null) {
+            this.downloadPom(new GAV(parent.groupId, parent.artifactId, MavenVersion.parse(parent.version)), executor);
+        }
+
+        List<@NotNull DependencyDeclaration> managedDependencies = project.managedDependencies;
+        if (managedDependencies == null) {
+            return;
+        }
+
+        Map<String, String> placeholders = null;
+        for (DependencyDeclaration dependency : managedDependencies) {
+            if (dependency.scope == null || dependency.groupId == null || dependency.artifactId == null || dependency.version == null) {
+                continue;
+            }
+            if (placeholders == null) {
+                placeholders = new HashMap<>();
+                MavenResolver.computePlaceholders(Collections.singletonList(new AbstractMap.SimpleImmutableEntry<>(gav, project)), 0, placeholders);
+            }
+            if (!"import".equals(MavenResolver.applyPlaceholders(dependency.scope, placeholders))) {
+                continue;
+            }
+            String group = Objects.requireNonNull(MavenResolver.applyPlaceholders(dependency.groupId, placeholders));
+            String artifactId = Objects.requireNonNull(MavenResolver.applyPlaceholders(dependency.artifactId, placeholders));
+            String version = Objects.requireNonNull(MavenResolver.applyPlaceholders(dependency.version, placeholders));
+            if (group.contains("${") || artifactId.contains("${") || version.contains("${")) {
+                continue;
+            }
+            this.downloadPom(group, artifactId, VersionRange.parse(version), executor);
+        }
     }
 
     @NotNull
@@ -252,7 +503,7 @@ public class MavenResolver {
         });
     }
 
-    private CompletableFuture<DependencyLayer> resolveChildLayer(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache) {
+    private CompletableFuture<DependencyLayer> resolveChildLayer(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache, @Nullable Speculation speculation, @Nullable Map<VersionlessDependency, ReusableElement> reusable) {
         if (layer.getChild() != null) {
             throw new IllegalStateException("Child layer already resolved");
         }
@@ -302,18 +553,46 @@ public class MavenResolver {
         for (Map.Entry<VersionlessDependency, ChildResolutionContext> entry : resolveChildren.entrySet()) {
             VersionlessDependency coordinates = entry.getKey();
             ChildResolutionContext resolveContext = entry.getValue();
-            futures.add(this.getVersions(coordinates.group(), coordinates.artifact(), executor).exceptionally((ex) -> {
-                this.logger.debug(MavenResolver.class, "Failed to obtain versions for artifact '{}:{}'", coordinates.group(), coordinates.artifact(), ex);
-                this.logger.warn(MavenResolver.class, "Unable to obtain the versions available for artifact '{}:{}'. It is likely that the relevant maven-metadata.xml file is missing. This may hamper resolution stability (especially when version ranges are being used) as the available versions will be guessed instead. See debug log output for the full relevant stacktrace.", coordinates.group(), coordinates.artifact());
-                return VersionCatalogue.synthesize(resolveContext.range.getRecommendedVersions());
-            }).thenCompose((catalogue)-> {
-                MavenVersion selected = resolveContext.range.selectFrom(catalogue.releaseVersions, catalogue.releaseVersion);
-                if (selected == null) {
-                    throw new IllegalStateException("Unable to resolve a sensical version for range " + resolveContext.range + " for coordinates " + coordinates);
+            if (resolveContext.range.isEmpty()) {
+                futures.add(JavaInterop.failedFuture(new IllegalStateException("The version ranges requested for coordinates " + coordinates + " are mutually exclusive: " + resolveContext.range)));
+                continue;
+            }
+
+            CompletableFuture<MavenVersion> selectedVersion;
+            ReusableElement reuse = reusable == null ? null : reusable.get(coordinates);
+            if (reuse != null && reuse.negotiatedRange.equals(resolveContext.range.toSpecification())) {
+                // The version negotiation has the same input as in the previous resolution, so it would have the same outcome
+                DependencyLayerElement element = reuse.copy(resolveContext.effectiveExclusions);
+                if (element != null) {
+                    for (DependencyEdge edge : resolveContext.declaringEdges) {
+                        edge.resolve(element);
+                    }
+                    futures.add(CompletableFuture.completedFuture(element));
+                    continue;
                 }
+                selectedVersion = CompletableFuture.completedFuture(reuse.element.gav.version());
+            } else {
+                this.prefetchRecommended(coordinates.group(), coordinates.artifact(), resolveContext.range, executor);
+                selectedVersion = this.getVersions(coordinates.group(), coordinates.artifact(), executor).exceptionally((ex) -> {
+                    this.logger.debug(MavenResolver.class, "Failed to obtain versions for artifact '{}:{}'", coordinates.group(), coordinates.artifact(), ex);
+                    this.logger.warn(MavenResolver.class, "Unable to obtain the versions available for artifact '{}:{}'. It is likely that the relevant maven-metadata.xml file is missing. This may hamper resolution stability (especially when version ranges are being used) as the available versions will be guessed instead. See debug log output for the full relevant stacktrace.", coordinates.group(), coordinates.artifact());
+                    return VersionCatalogue.synthesize(resolveContext.range.getRecommendedVersions());
+                }).thenApply((catalogue) -> {
+                    MavenVersion selected = catalogue.selectVersion(resolveContext.range);
+                    if (selected == null) {
+                        throw new IllegalStateException("Unable to resolve a sensical version for range " + resolveContext.range + " for coordinates " + coordinates);
+                    }
+                    return selected;
+                });
+            }
+
+            futures.add(selectedVersion.thenCompose((selected) -> {
                 GAV gav = new GAV(coordinates.group(), coordinates.artifact(), selected);
                 return this.getNode(gav, coordinates.classifier(), coordinates.getType("jar"), executor);
             }).thenApply((node) -> {
+                if (speculation != null) {
+                    this.speculateChildren(node, resolveContext.effectiveExclusions, speculation, speculation.depth, executor);
+                }
                 DependencyLayerElement element = node.toLayerElement(coordinates.classifier(), coordinates.type(), resolveContext.effectiveExclusions);
                 for (DependencyEdge edge : resolveContext.declaringEdges) {
                     edge.resolve(element);
@@ -333,27 +612,133 @@ public class MavenResolver {
         });
     }
 
-    private CompletableFuture<Void> resolveAllChildren0(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache) {
-        return this.resolveChildLayer(layer, executor, resolveCache).thenCompose((child) -> {
+    private CompletableFuture<Void> resolveAllChildren0(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache, @Nullable Speculation speculation, @Nullable Map<VersionlessDependency, ReusableElement> reusable) {
+        return this.resolveChildLayer(layer, executor, resolveCache, speculation, reusable).thenCompose((child) -> {
             if (child == null) {
                 return CompletableFuture.completedFuture(null);
             } else {
                 for (DependencyLayerElement element : child.elements) {
                     resolveCache.put(new VersionlessDependency(element.gav.group(), element.gav.artifact(), element.classifier, element.type), element);
                 }
-                return this.resolveAllChildren0(child, executor, resolveCache);
+                return this.resolveAllChildren0(child, executor, resolveCache, speculation, reusable);
             }
         });
     }
 
     public CompletableFuture<Void> resolveAllChildren(@NotNull DependencyLayer current, @NotNull Executor executor) {
+        Speculation speculation = this.newSpeculation();
+        return MavenResolver.endSpeculation(this.startResolution(current, executor, speculation, true, null), speculation);
+    }
+
+    /**
+     * Resolves all children of multiple, independent layers at once. Each layer is resolved as if it was passed to
+     * {@link #resolveAllChildren(DependencyLayer, Executor)} on its own, meaning that the version negotiation of
+     * one layer does not influence the negotiation of another layer. However, as all layers are resolved concurrently,
+     * the metadata, POMs and dependency nodes that are required by multiple layers are only obtained once.
+     * With {@link #pipelinedResolution} enabled, the speculative fetches are shared between all layers, too.
+     *
+     * <p>This method is meant for situations where many root sets need to be resolved, for example when resolving
+     * the dependencies of multiple plugins independently of each other.
+     *
+     * @param roots The layers whose children should be resolved, usually the root layers of the individual root sets
+     * @param executor The executor to use for the resolution
+     * @return A future that completes once the children of all layers are resolved. If the resolution of any layer failed,
+     * the future completes exceptionally once all other layers are resolved.
+     */
+    @NotNull
+    public CompletableFuture<Void> resolveAllChildren(@NotNull Collection<@NotNull DependencyLayer> roots, @NotNull Executor executor) {
+        if (roots.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // The artifacts of one root set may well be transitive dependencies of another root set,
+        // so the shared set must not be seeded with the artifacts of the individual root sets.
+        Speculation speculation = this.newSpeculation();
+        List<CompletableFuture<DependencyLayer>> futures = new ArrayList<>(roots.size());
+        for (DependencyLayer root : roots) {
+            futures.add(this.startResolution(root, executor, speculation, false, null).thenApply((ignore) -> root));
+        }
+        StronglyMultiCompletableFuture<DependencyLayer> combinedFuture = new StronglyMultiCompletableFuture<>(futures);
+        return MavenResolver.endSpeculation(combinedFuture.thenApply((resolved) -> {
+            combinedFuture.throwExceptionIfCompletedUncleanly();
+            return null;
+        }), speculation);
+    }
+
+    /**
+     * Resolves all children of a layer like {@link #resolveAllChildren(DependencyLayer, Executor)} does, while reusing
+     * the outcome of a previous resolution. This is meant for resolving a root set that only slightly
+     * differs from a root set which was resolved previously - such as when some root dependencies were added,
+     * removed or changed their version.
+     *
+     * <p>The version negotiation is performed like it would be performed by a resolution from scratch. However,
+     * for every artifact whose negotiation has the same input as in the previous resolution (that is whose
+     * requested version ranges are the same), the version that was selected previously is reused without consulting
+     * the repositories. Further, the outgoing edges of the previously resolved element are copied instead of
+     * obtaining the POMs of the artifact, provided that no exclusions applied to the previous element.
+     * Consequently, only the parts of the graph that are affected by the changes of the root set require I/O.
+     * The resulting graph is identical to a resolution from scratch, unless the contents of the repositories
+     * changed since the previous resolution.
+     *
+     * <p>The previous graph is not modified, the elements and edges of the new graph are always new instances.
+     * The previous graph may also originate from a lockfile (see the picoresolve-extras project), but it must have been
+     * resolved with the same {@link #ignoreTestDependencies} and {@link #ignoreOptionalDependencies} settings.
+     *
+     * @param current The layer whose children should be resolved, usually the root layer of the new root set
+     * @param previous The root layer of a previously resolved graph
+     * @param executor The executor to use for the resolution
+     * @return A future that completes once all children are resolved
+     */
+    public CompletableFuture<Void> resolveAllChildrenIncrementally(@NotNull DependencyLayer current, @NotNull DependencyLayer previous, @NotNull Executor executor) {
+        Map<VersionlessDependency, ReusableElement> reusable = new HashMap<>();
+        for (DependencyLayer layer = previous; layer.getChild() != null; layer = layer.getChild()) {
+            DependencyLayer child = layer.getChild();
+            Map<DependencyLayerElement, VersionRange> negotiatedRanges = new IdentityHashMap<>();
+            for (DependencyLayerElement element : layer.elements) {
+                for (DependencyEdge edge : element.outgoingEdges) {
+                    if (!edge.isResolved() || edge.getResolved().getLayer() != child) {
+                        // Edges resolved to elements of earlier layers did not partake in the negotiation
+                        continue;
+                    }
+                    negotiatedRanges.merge(edge.getResolved(), edge.requestedVersion, VersionRange::intersect);
+                }
+            }
+            for (DependencyLayerElement element : child.elements) {
+                VersionRange range = negotiatedRanges.get(element);
+                if (range != null) {
+                    VersionlessDependency coordinates = new VersionlessDependency(element.gav.group(), element.gav.artifact(), element.classifier, element.type);
+                    reusable.put(coordinates, new ReusableElement(element, range.toSpecification()));
+                }
+            }
+        }
+        Speculation speculation = this.newSpeculation();
+        return MavenResolver.endSpeculation(this.startResolution(current, executor, speculation, true, reusable), speculation);
+    }
+
+    @Nullable
+    private Speculation newSpeculation() {
+        int depth = this.pipelinedResolutionDepth;
+        return this.pipelinedResolution && depth > 0 ? new Speculation(depth) : null;
+    }
+
+    @NotNull
+    private static CompletableFuture<Void> endSpeculation(@NotNull CompletableFuture<Void> resolution, @Nullable Speculation speculation) {
+        if (speculation != null) {
+            resolution.whenComplete((ignore, ex) -> speculation.completed = true);
+        }
+        return resolution;
+    }
+
+    private CompletableFuture<Void> startResolution(@NotNull DependencyLayer current, @NotNull Executor executor, @Nullable Speculation speculation, boolean seedSpeculated, @Nullable Map<VersionlessDependency, ReusableElement> reusable) {
         Map<VersionlessDependency, DependencyLayerElement> resolveCache = new HashMap<>();
         for (DependencyLayer layer = current; layer != null; layer = layer.parent) {
             for (DependencyLayerElement element : layer.elements) {
                 resolveCache.put(new VersionlessDependency(element.gav.group(), element.gav.artifact(), element.classifier, element.type), element);
             }
         }
-        return this.resolveAllChildren0(current, executor, resolveCache);
+        if (speculation != null && seedSpeculated) {
+            speculation.speculated.addAll(resolveCache.keySet());
+        }
+        return this.resolveAllChildren0(current, executor, resolveCache, speculation, reusable);
     }
 
     public CompletableFuture<DependencyLayer> resolveChildLayer(@NotNull DependencyLayer current, @NotNull Executor executor) {
@@ -363,55 +748,190 @@ public class MavenResolver {
                 resolveCache.put(new VersionlessDependency(element.gav.group(), element.gav.artifact(), element.classifier, element.type), element);
             }
         }
-        return this.resolveChildLayer(current, executor, resolveCache);
+        return this.resolveChildLayer(current, executor, resolveCache, null, null);
+    }
+
+    /**
+     * Speculatively fetches the dependency nodes of the dependencies of a node, recursively up to the given depth.
+     * Each artifact is only speculated on once per resolution, as recorded by the speculated set.
+     * Failures are ignored, as the non-speculative resolution will run into them (and report them)
+     * if the failing artifact is actually needed.
+     *
+     * @param node The node whose dependencies should be fetched
+     * @param exclusions The exclusions applying to the dependencies of the node
+     * @param speculation The speculation state of the resolution
+     * @param depth The amount of layers that may still be fetched
+     * @param executor The executor to use for the speculative fetches
+     */
+    private void speculateChildren(@NotNull DependencyContainerNode node, @NotNull ExclusionContainer<?> exclusions, @NotNull Speculation speculation, int depth, @NotNull Executor executor) {
+        if (depth <= 0) {
+            return;
+        }
+        for (SubdependencyNode dependency : node.dependencies) {
+            if (speculation.completed) {
+                return;
+            }
+            if (exclusions.isExcluding(dependency.group, dependency.artifact)) {
+                continue;
+            }
+            VersionlessDependency coordinates = new VersionlessDependency(dependency.group, dependency.artifact, dependency.classifier, dependency.type);
+            if (!speculation.speculated.add(coordinates) || dependency.version.isEmpty()) {
+                continue;
+            }
+            ExclusionContainer<?> childExclusions = new ExclusionContainer<>(ExclusionMode.ANY, Arrays.asList(exclusions, dependency.exclusions), false);
+            this.prefetchRecommended(dependency.group, dependency.artifact, dependency.version, executor);
+            this.getVersions(dependency.group, dependency.artifact, executor).thenCompose((catalogue) -> {
+                MavenVersion selected = catalogue.selectVersion(dependency.version);
+                if (selected == null || speculation.completed) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                return this.getNode(new GAV(dependency.group, dependency.artifact, selected), dependency.classifier, dependency.type, executor);
+            }).thenAccept((child) -> {
+                if (child != null) {
+                    this.speculateChildren(child, childExclusions, speculation, depth - 1, executor);
+                }
+            });
+        }
+    }
+
+    /**
+     * Starts downloading the POM of the recommended version of a version range if {@link #prefetchRecommendedVersions}
+     * is enabled. Only the POM is fetched and stored in the POM cache, so that assembling the node of the GAV can reuse the
+     * potentially still in-flight download. The node itself is only assembled once the version is actually selected.
+     * Failures are ignored as they will resurface should the recommended version actually be selected.
+     *
+     * @param group The groupId of the artifact
+     * @param artifact The artifactId of the artifact
+     * @param range The version range requested for the artifact
+     * @param executor The executor to use for the download
+     */
+    private void prefetchRecommended(@NotNull String group, @NotNull String artifact, @NotNull VersionRange range, @NotNull Executor executor) {
+        if (!this.prefetchRecommendedVersions) {
+            return;
+        }
+        MavenVersion recommended = range.getRecommended();
+        if (recommended != null) {
+            this.downloadPom(new GAV(group, artifact, recommended), executor);
+        }
     }
 
     private CompletableFuture<DependencyContainerNode> getNode(@NotNull GAV gav, @Nullable String classifier, @NotNull String type, @NotNull Executor executor) {
-        DependencyContainerNode node = this.depdenencyCache.get(gav);
-        if (node != null) {
-            return CompletableFuture.completedFuture(node);
+        CompletableFuture<DependencyContainerNode> future = new CompletableFuture<>();
+        CompletableFuture<DependencyContainerNode> cached = this.depdenencyCache.putIfAbsent(gav, future);
+        if (cached != null) {
+            return cached;
+        }
+
+        // The node is only assembled once the placeholder is in place, so that no work is done while holding the lock of the map.
+        this.getNode0(gav, executor).whenComplete((node, ex) -> {
+            if (ex == null) {
+                if (MavenResolver.isSnapshot(gav)) {
+                    this.depdenencyCache.remove(gav, future);
+                }
+                future.complete(node);
+            } else {
+                this.depdenencyCache.remove(gav, future);
+                future.completeExceptionally(ex);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<DependencyContainerNode> getNode0(@NotNull GAV gav, @NotNull Executor executor) {
+        PersistentNodeStore nodeStore = this.persistentNodeStore;
+        if (nodeStore == null) {
+            return this.assembleNode(gav, executor, null);
         }
-        return this.downloadPom(gav, executor).thenCompose((xmlDoc) -> {
-            List<Map.Entry<@NotNull GAV, @NotNull Document>> list = new ArrayList<>();
-            list.add(new AbstractMap.SimpleImmutableEntry<>(gav, xmlDoc));
-            Element project = xmlDoc.getDocumentElement();
-            project.normalize();
-            Element parent = XMLUtil.optElement(project, "parent");
+
+        int settings = (this.ignoreTestDependencies ? PersistentNodeStore.IGNORE_TEST_DEPENDENCIES : 0)
+                | (this.ignoreOptionalDependencies ? PersistentNodeStore.IGNORE_OPTIONAL_DEPENDENCIES : 0);
+        return nodeStore.load(this, gav, settings, executor).exceptionally((ex) -> {
+            this.logger.debug(MavenResolver.class, "Unable to load persisted node of {}", gav, ex);
+            return null;
+        }).thenCompose((dependencies) -> {
+            if (dependencies == null) {
+                return this.assembleAndPersistNode(gav, executor, nodeStore, settings);
+            }
+            DependencyContainerNode node = new DependencyContainerNode(gav);
+            for (DependencyEdge edge : dependencies) {
+                node.createDependency(edge.group, edge.artifact, edge.classifier, edge.type, edge.requestedVersion, edge.scope, edge.edgeExclusion);
+            }
+            return CompletableFuture.completedFuture(node);
+        });
+    }
+
+    private CompletableFuture<DependencyContainerNode> assembleAndPersistNode(@NotNull GAV gav, @NotNull Executor executor, @NotNull PersistentNodeStore nodeStore, int settings) {
+        NodeContributors contributors = new NodeContributors();
+        return this.assembleNode(gav, executor, contributors).thenApply((node) -> {
+            if (contributors.rangedImport) {
+                // The node may change without any of its contributors changing, so it can not be persisted
+                return node;
+            }
+            List<@NotNull DependencyEdge> dependencies = new ArrayList<>(node.dependencies.size());
+            for (SubdependencyNode dependency : node.dependencies) {
+                dependencies.add(new DependencyEdge(dependency.group, dependency.artifact, dependency.classifier, dependency.type, dependency.version, dependency.scope, dependency.exclusions));
+            }
+            // Persisting the node happens in the background, there is no need to wait for it
+            nodeStore.store(this, gav, settings, new ArrayList<>(contributors.poms), dependencies, executor).exceptionally((ex) -> {
+                this.logger.debug(MavenResolver.class, "Unable to persist node of {}", gav, ex);
+                return null;
+            });
+            return node;
+        });
+    }
+
+    /**
+     * Assembles the dependency node of an artifact from its POM and the POMs it depends on (parent POMs and imported BOMs).
+     *
+     * @param gav The coordinates of the artifact
+     * @param executor The executor to use for downloading the POMs
+     * @param contributors The record to which the coordinates of all POMs that are used for assembling the node are added,
+     * or null if they need not be recorded
+     * @return A future that completes with the assembled node
+     */
+    private CompletableFuture<DependencyContainerNode> assembleNode(@NotNull GAV gav, @NotNull Executor executor, @Nullable NodeContributors contributors) {
+        return this.downloadPom(gav, executor).thenCompose((project) -> {
+            List<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>> list = new ArrayList<>();
+            list.add(new AbstractMap.SimpleImmutableEntry<>(gav, project));
+            ParentDeclaration parent = project.parent;
             if (parent == null) {
                 return CompletableFuture.completedFuture(list);
             } else {
                 return this.downloadParentPoms(parent, executor, list);
             }
         }).thenCompose((poms) -> {
+            if (contributors != null) {
+                for (Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel> pom : poms) {
+                    contributors.poms.add(pom.getKey());
+                }
+            }
             Map<String, String> placeholders = new HashMap<>();
             MavenResolver.computePlaceholders(poms, 0, placeholders);
-            return this.getDependencyManagementTree(executor, poms, 0).thenApply((depManagement) -> {
+            return this.getDependencyManagementTree(executor, poms, 0, contributors).thenApply((depManagement) -> {
                 return getDependencyNode0(placeholders, poms, depManagement);
             });
         });
     }
 
-    private DependencyContainerNode getDependencyNode0(@NotNull Map<String, String> placeholders, List<Entry<@NotNull GAV, @NotNull Document>> poms, @NotNull DependencyManagementTree dependencyManagement) {
-        Document xmlDoc = poms.get(0).getValue();
+    private DependencyContainerNode getDependencyNode0(@NotNull Map<String, String> placeholders, List<Entry<@NotNull GAV, @NotNull ProjectObjectModel>> poms, @NotNull DependencyManagementTree dependencyManagement) {
+        ProjectObjectModel project = poms.get(0).getValue();
         DependencyContainerNode container = new DependencyContainerNode(poms.get(0).getKey());
-        Element project = xmlDoc.getDocumentElement();
-        Element deps = XMLUtil.optElement(project, "dependencies");
-        if (deps == null) {
+        if (project.dependencies.isEmpty()) {
             return container;
         }
 
         Map<VersionlessDependency, DependencyManagementNode> managementNodes = new HashMap<>();
         dependencyManagement.collectNodes(managementNodes);
 
-        for (Element dependency : new ChildElementIterable(deps)) {
-            String group = XMLUtil.elementText(dependency, "groupId");
-            String artifactId = XMLUtil.elementText(dependency, "artifactId");
-            String version = XMLUtil.elementText(dependency, "version");
-            String scope = XMLUtil.elementText(dependency, "scope");
-            String classifier = XMLUtil.elementText(dependency, "classifier");
-            String type = XMLUtil.elementText(dependency, "type");
-            String optional = XMLUtil.elementText(dependency, "optional"); // TODO implement
-            ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(XMLUtil.optElement(dependency, "exclusions"), placeholders);
+        for (DependencyDeclaration dependency : project.dependencies) {
+            String group = dependency.groupId;
+            String artifactId = dependency.artifactId;
+            String version = dependency.version;
+            String scope = dependency.scope;
+            String classifier = dependency.classifier;
+            String type = dependency.type;
+            String optional = dependency.optional; // TODO implement
+            ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(dependency.exclusions, placeholders);
 
             group = Objects.requireNonNull(MavenResolver.applyPlaceholders(group, placeholders));
             artifactId = Objects.requireNonNull(MavenResolver.applyPlaceholders(artifactId, placeholders));
@@ -464,10 +984,10 @@ public class MavenResolver {
         return container;
     }
 
-    private CompletableFuture<@NotNull List<Map.Entry<@NotNull GAV, @NotNull Document>>> downloadParentPoms(@NotNull Element parentElement, @NotNull Executor executor, @NotNull List<Map.Entry<@NotNull GAV, @NotNull Document>> sink) {
-        String group = XMLUtil.elementText(parentElement, "groupId");
-        String artifactId = XMLUtil.elementText(parentElement, "artifactId");
-        String version = XMLUtil.elementText(parentElement, "version");
+    private CompletableFuture<@NotNull List<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>>> downloadParentPoms(@NotNull ParentDeclaration parent, @NotNull Executor executor, @NotNull List<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>> sink) {
+        String group = parent.groupId;
+        String artifactId = parent.artifactId;
+        String version = parent.version;
 
         if (group == null) {
             return JavaInterop.failedFuture(new IllegalStateException("groupId missing in parent element"));
@@ -481,26 +1001,23 @@ public class MavenResolver {
 
         GAV gav = new GAV(group, artifactId, MavenVersion.parse(version));
 
-        // TODO Implement in-memory document cache to prevent downloading duplicate parent POMs
-        return downloadPom(gav, executor).thenCompose((xmlDoc) -> {
+        return this.downloadPom(gav, executor).thenCompose((project) -> {
             synchronized(sink) {
-                sink.add(new AbstractMap.SimpleImmutableEntry<>(gav, xmlDoc));
+                sink.add(new AbstractMap.SimpleImmutableEntry<>(gav, project));
             }
-            Element project = xmlDoc.getDocumentElement();
-            project.normalize();
-            Element parent = XMLUtil.optElement(project, "parent");
-            if (parent != null) {
-                return this.downloadParentPoms(parent, executor, sink);
+            ParentDeclaration grandparent = project.parent;
+            if (grandparent != null) {
+                return this.downloadParentPoms(grandparent, executor, sink);
             }
             return CompletableFuture.completedFuture(sink);
         });
     }
 
-    private static void computePlaceholders(List<Map.Entry<@NotNull GAV, @NotNull Document>> poms, int pomIndex, Map<String, String> out) {
+    private static void computePlaceholders(List<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>> poms, int pomIndex, Map<String, String> out) {
         GAV gav = poms.get(pomIndex).getKey();
         if (!poms.isEmpty()) {
-            for (ListIterator<Map.Entry<@NotNull GAV, @NotNull Document>> lit = poms.listIterator(pomIndex); lit.hasNext();) { // TODO chances are we need the inverse order (we used to iterate from the back), so be aware that this may need fixing
-                Map.Entry<@NotNull GAV, @NotNull Document> entry = lit.next();
+            for (ListIterator<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>> lit = poms.listIterator(pomIndex); lit.hasNext();) { // TODO chances are we need the inverse order (we used to iterate from the back), so be aware that this may need fixing
+                Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel> entry = lit.next();
                 MavenResolver.extractProperties(entry.getValue(), entry.getKey(), out);
             }
         }
@@ -515,48 +1032,46 @@ public class MavenResolver {
         out.put("groupId", gav.group());
     }
 
-    private CompletableFuture<DependencyManagementTree> getDependencyManagementBOMTree(@NotNull Executor executor, @NotNull String group, @NotNull String artifact, @NotNull VersionRange version, @NotNull DependencyManagementTree parentNode) {
+    private CompletableFuture<DependencyManagementTree> getDependencyManagementBOMTree(@NotNull Executor executor, @NotNull String group, @NotNull String artifact, @NotNull VersionRange version, @NotNull DependencyManagementTree parentNode, @Nullable NodeContributors contributors) {
+        if (contributors != null && version.getRecommended() == null) {
+            // Which BOM is selected by a range can change without any of the contributing POMs changing
+            contributors.rangedImport = true;
+        }
         return this.downloadPom(group, artifact, version, executor).thenCompose((entry) -> {
-            Document xmlDoc = entry.getValue();
-            List<Map.Entry<@NotNull GAV, @NotNull Document>> list = new ArrayList<>();
+            List<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>> list = new ArrayList<>();
             list.add(entry);
-            Element project = xmlDoc.getDocumentElement();
-            project.normalize();
-            Element parent = XMLUtil.optElement(project, "parent");
+            ParentDeclaration parent = entry.getValue().parent;
             if (parent == null) {
                 return CompletableFuture.completedFuture(list);
             } else {
                 return this.downloadParentPoms(parent, executor, list);
             }
         }).thenCompose((poms) -> {
-            return getDependencyManagementTree(executor, poms, 0);
+            if (contributors != null) {
+                for (Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel> pom : poms) {
+                    contributors.poms.add(pom.getKey());
+                }
+            }
+            return getDependencyManagementTree(executor, poms, 0, contributors);
         }).thenApply((node) -> {
             parentNode.addImportNode(node);
             return node;
         });
     }
 
-    private CompletableFuture<@NotNull DependencyManagementTree> getDependencyManagementTree(@NotNull Executor executor, @NotNull List<Map.Entry<@NotNull GAV, @NotNull Document>> poms, int pomIndex) {
+    private CompletableFuture<@NotNull DependencyManagementTree> getDependencyManagementTree(@NotNull Executor executor, @NotNull List<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>> poms, int pomIndex, @Nullable NodeContributors contributors) {
         Map<String, String> placeholders = new HashMap<>();
         MavenResolver.computePlaceholders(poms, pomIndex, placeholders);
 
-        Element project = poms.get(pomIndex).getValue().getDocumentElement();
-        Element dependencyManagement = XMLUtil.optElement(project, "dependencyManagement");
+        List<@NotNull DependencyDeclaration> dependencies = poms.get(pomIndex).getValue().managedDependencies;
         int parentPomIndex = pomIndex + 1;
-        Element dependencies;
-
-        if (dependencyManagement == null) {
-            dependencies = null;
-        } else {
-            dependencies = XMLUtil.optElement(dependencyManagement, "dependencies");
-        }
 
         if (dependencies == null) {
             if (parentPomIndex == poms.size()) {
                 // No further parents
                 return CompletableFuture.completedFuture(DependencyManagementTree.EMPTY);
             }
-            return getDependencyManagementTree(executor, poms, parentPomIndex).thenApply((parentTree) -> {
+            return getDependencyManagementTree(executor, poms, parentPomIndex, contributors).thenApply((parentTree) -> {
                 // You might think - surely, you can just return the parent tree?
                 // Well, you'd be wrong as the depth of BOM (bill-of-materials) nodes matter.
                 DependencyManagementTree tree = new DependencyManagementTree();
@@ -566,15 +1081,15 @@ public class MavenResolver {
         } else {
             DependencyManagementTree tree = new DependencyManagementTree();
             List<CompletableFuture<DependencyManagementTree>> dependencyFutures = new ArrayList<>();
-            for (Element dependency : new ChildElementIterable(dependencies)) {
-                String group = XMLUtil.elementText(dependency, "groupId");
-                String artifactId = XMLUtil.elementText(dependency, "artifactId");
-                String version = XMLUtil.elementText(dependency, "version");
-                String scope = XMLUtil.elementText(dependency, "scope");
-                String classifier = XMLUtil.elementText(dependency, "classifier");
-                String type = XMLUtil.elementText(dependency, "type");
-                String optional = XMLUtil.elementText(dependency, "optional"); // TODO implement
-                ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(XMLUtil.optElement(dependency, "exclusions"), placeholders);
+            for (DependencyDeclaration dependency : dependencies) {
+                String group = dependency.groupId;
+                String artifactId = dependency.artifactId;
+                String version = dependency.version;
+                String scope = dependency.scope;
+                String classifier = dependency.classifier;
+                String type = dependency.type;
+                String optional = dependency.optional; // TODO implement
+                ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(dependency.exclusions, placeholders);
 
                 group = Objects.requireNonNull(MavenResolver.applyPlaceholders(group, placeholders));
                 artifactId = Objects.requireNonNull(MavenResolver.applyPlaceholders(artifactId, placeholders));
@@ -587,26 +1102,30 @@ public class MavenResolver {
                 if (scope != null && scope.equals("import")) {
                     DependencyManagementTree importNode = new DependencyManagementTree();
                     tree.addImportNode(importNode);
-                    dependencyFutures.add(this.getDependencyManagementBOMTree(executor, group, artifactId, VersionRange.parse(version), importNode));
+                    dependencyFutures.add(this.getDependencyManagementBOMTree(executor, group, artifactId, VersionRange.parse(version), importNode, contributors));
                 } else {
                     tree.addNode(new VersionlessDependency(group, artifactId, classifier, type), new DependencyManagementNode(scope, version, exclusions));
                 }
             }
 
+            // The imported BOMs and the dependency management of the parent POMs are obtained independently of each other
+            // and are only linked together once all of them are available, their order is retained through the
+            // placeholder import nodes and the parent link respectively.
+            CompletableFuture<List<DependencyManagementTree>> importsFuture = new StronglyMultiCompletableFuture<>(dependencyFutures);
             if (parentPomIndex == poms.size()) {
-                return CompletableFuture.completedFuture(tree);
+                return importsFuture.thenApply((ignore) -> tree);
             } else {
-                return this.getDependencyManagementTree(executor, poms, parentPomIndex).thenCompose((parentDependencyManagement) -> {
-                    parentDependencyManagement.setParent(tree);
-                    return new StronglyMultiCompletableFuture<>(dependencyFutures);
-                }).thenApply((ignore) -> tree);
+                return this.getDependencyManagementTree(executor, poms, parentPomIndex, contributors).thenCombine(importsFuture, (parentDependencyManagement, ignore) -> {
+                    tree.setParent(parentDependencyManagement);
+                    return tree;
+                });
             }
         }
     }
 
     public CompletableFuture<Map.Entry<@NotNull GAV, RepositoryAttachedValue<Path>>> download(@NotNull String group, @NotNull String artifact, @NotNull VersionRange versionRange, @Nullable String classifier, @NotNull String extension, @NotNull Executor executor) {
         return this.getVersions(group, artifact, executor).thenCompose((catalogue)-> {
-            MavenVersion selected = versionRange.selectFrom(catalogue.releaseVersions, catalogue.releaseVersion);
+            MavenVersion selected = catalogue.selectVersion(versionRange);
             if (selected == null) {
                 throw new IllegalStateException("Unable to resolve a sensical version for range " + versionRange + " for coordinates " + group + ":" + artifact + ":?:" + classifier + ":" + extension);
             }
@@ -618,7 +1137,37 @@ public class MavenResolver {
     }
 
     private CompletableFuture<VersionCatalogue> getVersions(@NotNull String groupId, @NotNull String artifactId, @NotNull Executor executor) {
-        return this.negotiator.resolveMavenMeta(groupId.replace('.', '/') + '/' + artifactId + "/maven-metadata.xml", executor).thenApply((item) -> {
+        String key = groupId + ':' + artifactId;
+        long now = System.currentTimeMillis();
+        CachedVersionCatalogue cached = this.versionCache.get(key);
+        if (cached != null) {
+            if (cached.expiry > now) {
+                return cached.catalogue;
+            }
+            this.versionCache.remove(key, cached);
+        }
+
+        CachedVersionCatalogue created = new CachedVersionCatalogue();
+        cached = this.versionCache.putIfAbsent(key, created);
+        if (cached != null) {
+            // Another thread was faster
+            return cached.catalogue;
+        }
+
+        this.negotiator.resolveMavenMeta(groupId.replace('.', '/') + '/' + artifactId + "/maven-metadata.xml", executor).thenApply((item) -> {
+            // The catalogue is valid for as long as the metadata of all contributing repositories is valid.
+            // Metadata files that are not attached to any repository (e.g. maven-metadata-local.xml) do not expire
+            // on their own.
+            long updateInterval = Long.MAX_VALUE;
+            for (RepositoryAttachedValue<Path> rav : item) {
+                MavenRepository repository = rav.getRepository();
+                if (repository != null) {
+                    updateInterval = Math.min(updateInterval, repository.getUpdateIntervall());
+                }
+            }
+            if (updateInterval != Long.MAX_VALUE) {
+                created.expiry = now + updateInterval;
+            }
 
             List<VersionCatalogue> catalogues = new ArrayList<>(item.size());
             for (RepositoryAttachedValue<Path> rav : item) {
@@ -632,38 +1181,71 @@ public class MavenResolver {
                 catalogues.add(catalogue);
             }
             return VersionCatalogue.merge(catalogues);
+        }).whenComplete((catalogue, ex) -> {
+            if (ex == null) {
+                created.catalogue.complete(catalogue);
+            } else {
+                this.versionCache.remove(key, created);
+                created.catalogue.completeExceptionally(ex);
+            }
         });
+
+        return created.catalogue;
     }
 
-    private CompletableFuture<Map.Entry<@NotNull GAV, @NotNull Document>> downloadPom(@NotNull String group, @NotNull String artifact, @NotNull VersionRange range, @NotNull Executor executor) {
-        return this.download(group, artifact, range, null, "pom", executor).thenApply((entry) -> {
-            try {
-                Document xmlDoc;
-                {
-                    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-                    try (InputStream is = Files.newInputStream(entry.getValue().getValue())) {
-                        xmlDoc = factory.newDocumentBuilder().parse(is);
-                    }
-                }
-                xmlDoc.getDocumentElement().normalize();
-                return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), xmlDoc);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+    private CompletableFuture<Map.Entry<@NotNull GAV, @NotNull ProjectObjectModel>> downloadPom(@NotNull String group, @NotNull String artifact, @NotNull VersionRange range, @NotNull Executor executor) {
+        return this.getVersions(group, artifact, executor).thenCompose((catalogue) -> {
+            MavenVersion selected = catalogue.selectVersion(range);
+            if (selected == null) {
+                throw new IllegalStateException("Unable to resolve a sensical version for range " + range + " for coordinates " + group + ":" + artifact + ":?:null:pom");
             }
+            GAV gav = new GAV(group, artifact, selected);
+            return this.downloadPom(gav, executor).thenApply((project) -> {
+                return new AbstractMap.SimpleImmutableEntry<>(gav, project);
+            });
         });
     }
 
+    /**
+     * Checks whether an {@link Excluder} is guaranteed to not exclude any artifact, based on its structure alone.
+     *
+     * @param excluder The excluder to check
+     * @return True if the excluder never excludes anything, false if it might exclude something
+     */
+    private static boolean isNeverExcluding(@NotNull Excluder excluder) {
+        if (!(excluder instanceof ExclusionContainer)) {
+            return false;
+        }
+        ExclusionContainer<?> container = (ExclusionContainer<?>) excluder;
+        if (container.getMode() == ExclusionMode.ALL) {
+            if (container.getChildren().isEmpty()) {
+                return true;
+            }
+            for (Excluder child : container.getChildren()) {
+                if (MavenResolver.isNeverExcluding(child)) {
+                    return true;
+                }
+            }
+            return false;
+        } else {
+            for (Excluder child : container.getChildren()) {
+                if (!MavenResolver.isNeverExcluding(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     @Nullable
-    private static ExclusionContainer<Exclusion> parseExclusions(@Nullable Element element, @NotNull Map<String, String> placeholders) {
-        if (element == null) {
+    private static ExclusionContainer<Exclusion> parseExclusions(@Nullable List<@NotNull ExclusionDeclaration> exclusions, @NotNull Map<String, String> placeholders) {
+        if (exclusions == null) {
             return null;
         }
-        List<@NotNull Element> exclusions = XMLUtil.getChildElements(element);
         List<@NotNull Exclusion> parsed = new ArrayList<>(exclusions.size());
-        for (Element exclusion : exclusions) {
-            String group = XMLUtil.elementText(exclusion, "groupId");
-            String artifact = XMLUtil.elementText(exclusion, "artifactId");
+        for (ExclusionDeclaration exclusion : exclusions) {
+            String group = exclusion.groupId;
+            String artifact = exclusion.artifactId;
             group = MavenResolver.applyPlaceholders(group, placeholders);
             artifact = MavenResolver.applyPlaceholders(artifact, placeholders);
 
@@ -672,6 +1254,111 @@ public class MavenResolver {
         return new ExclusionContainer<>(ExclusionMode.ANY, parsed, false);
     }
 
+    /**
+     * Sets the maximum amount of parsed POMs that are kept in memory. Parsed POMs are shared between all resolution
+     * operations performed by this instance, the least recently used POMs are evicted once the capacity is exceeded.
+     * Lowering the capacity evicts excess POMs immediately.
+     *
+     * <p>The cache does not track whether the POM files on disk were altered in the meantime,
+     * so long-lived instances might want to call {@link #clearPomCache()} from time to time.
+     *
+     * @param capacity The maximum amount of cached POMs, 0 to disable caching altogether.
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    public MavenResolver setPomCacheCapacity(int capacity) {
+        this.pomCache.setCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * Discards all parsed POMs that are currently kept in memory.
+     *
+     * @see #setPomCacheCapacity(int)
+     */
+    public void clearPomCache() {
+        this.pomCache.clear();
+    }
+
+    /**
+     * Sets the maximum amount of merged version catalogues that are kept in memory. A version catalogue
+     * stores the versions of an artifact that are available across all repositories, as defined by the
+     * maven-metadata.xml files. Cached catalogues are automatically discarded once the
+     * {@link MavenRepository#getUpdateIntervall() update interval} of any of the repositories which contributed
+     * to the catalogue elapses. The least recently used catalogues are evicted once the capacity is exceeded.
+     *
+     * <p>Catalogues which are solely based on files installed to the local repository do not expire,
+     * {@link #clearVersionCache()} needs to be used in order to pick up changes to them.
+     *
+     * @param capacity The maximum amount of cached catalogues, 0 to disable caching altogether.
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    public MavenResolver setVersionCacheCapacity(int capacity) {
+        this.versionCache.setCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * Discards all merged version catalogues that are currently kept in memory.
+     *
+     * @see #setVersionCacheCapacity(int)
+     */
+    public void clearVersionCache() {
+        this.versionCache.clear();
+    }
+
+    /**
+     * Sets the maximum amount of dependency nodes that are kept in memory. Dependency nodes are the resolved
+     * dependency declarations of an artifact, with dependency management, parent POMs and placeholders
+     * already applied to them. The least recently used nodes are evicted once the capacity is exceeded.
+     * Lowering the capacity evicts excess nodes immediately.
+     *
+     * <p>Nodes of SNAPSHOT versions are only shared between concurrent requests and are not kept once
+     * they are assembled, as the SNAPSHOT might be republished in the meantime.
+     *
+     * @param capacity The maximum amount of cached nodes, 0 to disable caching altogether.
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    public MavenResolver setDependencyCacheCapacity(int capacity) {
+        this.depdenencyCache.setCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * Discards all dependency nodes that are currently kept in memory.
+     *
+     * @see #setDependencyCacheCapacity(int)
+     */
+    public void clearDependencyCache() {
+        this.depdenencyCache.clear();
+    }
+
+    /**
+     * Sets the store in which dependency nodes are persisted across JVM instances. Dependency nodes are the resolved
+     * dependency declarations of an artifact, with dependency management, parent POMs and placeholders
+     * already applied to them. Nodes obtained from the store can be reused without parsing any POM.
+     *
+     * <p>Nodes are handed to the store alongside the coordinates of all POMs which contributed to them (the POM of the
+     * artifact, its parent POMs, the imported BOMs and their parent POMs), so that the store can discard them once
+     * any of these POMs is altered. Nodes which import a BOM through a version range (or through RELEASE or LATEST)
+     * are never persisted, as the selected BOM can change without any of the contributing POMs being altered.
+     * Stores are further told about the {@link #ignoreTestDependencies} and {@link #ignoreOptionalDependencies} settings
+     * the node was assembled with.
+     *
+     * <p>No store is used by default, as picoresolve otherwise does not write files which the maven resolver
+     * would not write. A file-based store is provided by the optional picoresolve-extras project.
+     *
+     * @param store The store to persist the nodes in, or null to disable persisting nodes.
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    public MavenResolver setPersistentNodeStore(@Nullable PersistentNodeStore store) {
+        this.persistentNodeStore = store;
+        return this;
+    }
+
     public void setLogger(@NotNull LoggingAdapter logger) {
         this.logger = Objects.requireNonNull(logger, "logger may not be null.");
     }
@@ -0,0 +1,75 @@
+package org.stianloader.picoresolve;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+
+/**
+ * A store of dependency nodes which persists across JVM instances. Dependency nodes are the resolved
+ * dependency declarations of an artifact, with dependency management, parent POMs and placeholders
+ * already applied to them. They are represented as lists of unresolved {@link DependencyEdge DependencyEdges}.
+ *
+ * <p>picoresolve does not ship an implementation of this interface, as it would otherwise write files which
+ * the maven resolver would not write. A file-based implementation is provided by the optional picoresolve-extras
+ * project.
+ *
+ * <p>The settings of the resolver which affect the contents of a node are passed to the store as a bitmask
+ * of the {@link #IGNORE_TEST_DEPENDENCIES} and {@link #IGNORE_OPTIONAL_DEPENDENCIES} flags. Stores should treat
+ * the bitmask as opaque and only compare it for equality, as further flags may be defined in the future.
+ *
+ * @see MavenResolver#setPersistentNodeStore(PersistentNodeStore)
+ */
+public interface PersistentNodeStore {
+
+    /**
+     * Flag of the settings bitmask which is set if the node was assembled with {@link MavenResolver#ignoreTestDependencies}
+     * enabled.
+     */
+    int IGNORE_TEST_DEPENDENCIES = 1;
+
+    /**
+     * Flag of the settings bitmask which is set if the node was assembled with {@link MavenResolver#ignoreOptionalDependencies}
+     * enabled.
+     */
+    int IGNORE_OPTIONAL_DEPENDENCIES = 2;
+
+    /**
+     * Loads the dependency node of an artifact. The store is responsible for verifying that the node
+     * is still current, that is that none of the POMs which contributed to the node were altered since the node
+     * was {@link #store(MavenResolver, GAV, int, List, List, Executor) stored}. The POMs can be obtained through
+     * {@link MavenResolver#download(GAV, String, String, Executor)}.
+     *
+     * <p>The returned edges are copied by the resolver and can thus be shared between invocations.
+     *
+     * @param resolver The resolver which requests the node
+     * @param gav The coordinates of the artifact
+     * @param settings The settings of the resolver that affect the contents of the node, as a bitmask of the
+     * {@link #IGNORE_TEST_DEPENDENCIES} and {@link #IGNORE_OPTIONAL_DEPENDENCIES} flags. Nodes which were stored
+     * using different settings must not be returned
+     * @param executor The executor to use for loading the node
+     * @return A future that completes with the dependencies of the node, or with null if no current node is stored
+     */
+    @NotNull
+    CompletableFuture<@Nullable List<@NotNull DependencyEdge>> load(@NotNull MavenResolver resolver, @NotNull GAV gav, int settings, @NotNull Executor executor);
+
+    /**
+     * Stores the dependency node of an artifact, replacing any previously stored node of the same artifact.
+     * The resolver does not wait for the returned future to complete.
+     *
+     * @param resolver The resolver which assembled the node
+     * @param gav The coordinates of the artifact
+     * @param settings The settings of the resolver that affect the contents of the node, as a bitmask of the
+     * {@link #IGNORE_TEST_DEPENDENCIES} and {@link #IGNORE_OPTIONAL_DEPENDENCIES} flags
+     * @param contributors The coordinates of all POMs which contributed to the node (that is the POM of the
+     * artifact, its parent POMs, the imported BOMs and their parent POMs)
+     * @param dependencies The dependencies of the node
+     * @param executor The executor to use for storing the node
+     * @return A future that completes once the node is stored
+     */
+    @NotNull
+    CompletableFuture<Void> store(@NotNull MavenResolver resolver, @NotNull GAV gav, int settings, @NotNull List<@NotNull GAV> contributors, @NotNull List<@NotNull DependencyEdge> dependencies, @NotNull Executor executor);
+}
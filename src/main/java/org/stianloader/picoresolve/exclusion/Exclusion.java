@@ -11,6 +11,14 @@ public class Exclusion implements Excluder {
         this.artifact = artifact;
     }
 
+    public String getArtifact() {
+        return this.artifact;
+    }
+
+    public String getGroup() {
+        return this.group;
+    }
+
     @Override
     public boolean isExcluding(String group, String artifact) {
         // TODO are wildcards also valid for partial matches? (Whatever that means)
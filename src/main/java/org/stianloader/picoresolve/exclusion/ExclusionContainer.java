@@ -73,6 +73,17 @@ public class ExclusionContainer<T extends Excluder> implements Excluder {
         return this;
     }
 
+    /**
+     * Obtains the subordinate {@link Excluder Excluders} of this container.
+     *
+     * @return An unmodifiable view of the children of this container
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<@NotNull T> getChildren() {
+        return Collections.unmodifiableList(this.children);
+    }
+
     @Contract(pure = true)
     @NotNull
     public ExclusionMode getMode() {
@@ -7,6 +7,9 @@ import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -14,6 +17,26 @@ import org.jetbrains.annotations.NotNull;
 
 public class ConcurrencyUtil {
 
+    private static class TimerHolder {
+        @NotNull
+        private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor((task) -> {
+            Thread thread = new Thread(task, "picoresolve-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs an action after a delay on a shared timer thread. As the timer thread is shared, the action
+     * should not perform any lengthy operations but rather hand them off to an executor.
+     *
+     * @param action The action to run
+     * @param delay The delay in milliseconds
+     */
+    public static void runDelayed(@NotNull Runnable action, long delay) {
+        ConcurrencyUtil.TimerHolder.TIMER.schedule(action, delay, TimeUnit.MILLISECONDS);
+    }
+
     @NotNull
     public static <T> CompletableFuture<T> schedule(@NotNull Callable<T> source, @NotNull Executor executor) {
         Objects.requireNonNull(source, "source may not be null");
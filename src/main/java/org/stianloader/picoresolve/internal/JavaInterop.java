@@ -3,12 +3,16 @@ package org.stianloader.picoresolve.internal;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import org.jetbrains.annotations.NotNull;
 
 public final class JavaInterop {
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
     public static String codepointToString(int codepoint) {
         return new String(new int[] {codepoint}, 0, 1);
     }
@@ -41,6 +45,29 @@ public final class JavaInterop {
         return baos.toByteArray();
     }
 
+    /**
+     * Copies all remaining bytes of an {@link InputStream} to a {@link WritableByteChannel} using a buffer of fixed size,
+     * meaning that the memory usage of this method does not depend on the amount of transferred bytes.
+     *
+     * @param is The stream to read from
+     * @param out The channel to write to
+     * @return The amount of transferred bytes
+     * @throws IOException If reading or writing fails
+     */
+    public static long transfer(@NotNull InputStream is, @NotNull WritableByteChannel out) throws IOException {
+        byte[] buffer = new byte[JavaInterop.TRANSFER_BUFFER_SIZE];
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        long transferred = 0;
+        for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+            wrapped.clear().limit(read);
+            while (wrapped.hasRemaining()) {
+                out.write(wrapped);
+            }
+            transferred += read;
+        }
+        return transferred;
+    }
+
     private JavaInterop() {
         throw new AssertionError();
     }
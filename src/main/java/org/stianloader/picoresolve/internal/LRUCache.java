@@ -0,0 +1,96 @@
+package org.stianloader.picoresolve.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A thread-safe map with a maximum amount of entries. Once the capacity is exceeded, the least recently
+ * used entries are evicted.
+ *
+ * <p>All operations are synchronized on the cache instance, which is why values should be cheap to obtain
+ * (e.g. by storing {@link java.util.concurrent.CompletableFuture CompletableFutures} instead of the actual value).
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+@Internal
+public class LRUCache<K, V> {
+
+    private int capacity;
+
+    @NotNull
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<K, V>(16, 0.75F, true) {
+        private static final long serialVersionUID = 8520316420226127436L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return this.size() > LRUCache.this.capacity;
+        }
+    };
+
+    public LRUCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity may not be negative");
+        }
+        this.capacity = capacity;
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    @Nullable
+    public synchronized V get(@NotNull K key) {
+        return this.entries.get(key);
+    }
+
+    @Contract(pure = true)
+    public synchronized int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Associates the value with the given key if the key is not yet associated with any value.
+     * Should the capacity of the cache be 0, then the value is not stored, but null is still returned.
+     *
+     * @param key The key to store the value under
+     * @param value The value to store
+     * @return The value which is already associated with the key, or null if there was no value
+     */
+    @Nullable
+    public synchronized V putIfAbsent(@NotNull K key, @NotNull V value) {
+        return this.entries.putIfAbsent(key, value);
+    }
+
+    public synchronized boolean remove(@NotNull K key, @NotNull V value) {
+        return this.entries.remove(key, value);
+    }
+
+    /**
+     * Sets the maximum amount of entries stored in the cache. If the cache currently holds more entries,
+     * the least recently used entries are evicted immediately.
+     *
+     * @param capacity The new capacity. A capacity of 0 disables the cache.
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity may not be negative");
+        }
+        this.capacity = capacity;
+        Iterator<V> it = this.entries.values().iterator();
+        for (int excess = this.entries.size() - capacity; excess > 0; excess--) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+}
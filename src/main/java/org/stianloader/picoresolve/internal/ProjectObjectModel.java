@@ -0,0 +1,257 @@
+package org.stianloader.picoresolve.internal;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A compact representation of the parts of a POM file which are relevant to the resolver.
+ * The model is read in a single pass using a {@link XMLStreamReader}, everything that is not used by the
+ * resolver is skipped without being retained in memory.
+ *
+ * <p>All values are stored as-is, that is placeholders are not yet applied, as these can only be
+ * computed once the entire parent chain is known.
+ *
+ * <p>Only direct children of the project element are read. The dependencies, properties and dependencyManagement
+ * blocks nested in other elements (most notably in profiles or in the plugin declarations of the build block)
+ * are skipped, as the resolver neither activates profiles nor resolves plugins.
+ */
+@Internal
+public class ProjectObjectModel {
+
+    @Internal
+    public static class DependencyDeclaration {
+        public String artifactId;
+        public String classifier;
+        /**
+         * The declared exclusions, or null if the dependency does not have an exclusions block.
+         */
+        @Nullable
+        public List<@NotNull ExclusionDeclaration> exclusions;
+        public String groupId;
+        public String optional;
+        public String scope;
+        public String type;
+        public String version;
+    }
+
+    @Internal
+    public static class ExclusionDeclaration {
+        public String artifactId;
+        public String groupId;
+    }
+
+    @Internal
+    public static class ParentDeclaration {
+        public String artifactId;
+        public String groupId;
+        public String version;
+    }
+
+    @NotNull
+    private static List<@NotNull DependencyDeclaration> readDependencies(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        List<@NotNull DependencyDeclaration> dependencies = new ArrayList<>();
+        while (XMLUtil.nextChild(reader)) {
+            DependencyDeclaration dependency = new DependencyDeclaration();
+            while (XMLUtil.nextChild(reader)) {
+                switch (reader.getLocalName()) {
+                case "groupId":
+                    dependency.groupId = XMLUtil.readText(reader);
+                    break;
+                case "artifactId":
+                    dependency.artifactId = XMLUtil.readText(reader);
+                    break;
+                case "version":
+                    dependency.version = XMLUtil.readText(reader);
+                    break;
+                case "scope":
+                    dependency.scope = XMLUtil.readText(reader);
+                    break;
+                case "classifier":
+                    dependency.classifier = XMLUtil.readText(reader);
+                    break;
+                case "type":
+                    dependency.type = XMLUtil.readText(reader);
+                    break;
+                case "optional":
+                    dependency.optional = XMLUtil.readText(reader);
+                    break;
+                case "exclusions":
+                    dependency.exclusions = ProjectObjectModel.readExclusions(reader);
+                    break;
+                default:
+                    XMLUtil.skipElement(reader);
+                    break;
+                }
+            }
+            dependencies.add(dependency);
+        }
+        return dependencies;
+    }
+
+    @NotNull
+    private static List<@NotNull ExclusionDeclaration> readExclusions(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        List<@NotNull ExclusionDeclaration> exclusions = new ArrayList<>();
+        while (XMLUtil.nextChild(reader)) {
+            ExclusionDeclaration exclusion = new ExclusionDeclaration();
+            while (XMLUtil.nextChild(reader)) {
+                switch (reader.getLocalName()) {
+                case "groupId":
+                    exclusion.groupId = XMLUtil.readText(reader);
+                    break;
+                case "artifactId":
+                    exclusion.artifactId = XMLUtil.readText(reader);
+                    break;
+                default:
+                    XMLUtil.skipElement(reader);
+                    break;
+                }
+            }
+            exclusions.add(exclusion);
+        }
+        return exclusions;
+    }
+
+    @Nullable
+    public final String artifactId;
+
+    /**
+     * The dependencies declared within the top-level dependencies block.
+     */
+    @NotNull
+    public final List<@NotNull DependencyDeclaration> dependencies;
+
+    /**
+     * The names of all top-level elements that have no child nodes whatsoever.
+     * These are the only top-level elements that are exposed as "project.x" placeholders,
+     * as the DOM-based implementation used to behave the same way.
+     */
+    @NotNull
+    public final List<@NotNull String> emptyElements = new ArrayList<>();
+
+    /**
+     * The groupId declared by the POM itself, or null if it is inherited from the parent POM.
+     */
+    @Nullable
+    public final String groupId;
+
+    /**
+     * The dependencies declared within the dependencies block of the top-level dependencyManagement block,
+     * or null if the POM does not have such a block.
+     */
+    @Nullable
+    public final List<@NotNull DependencyDeclaration> managedDependencies;
+
+    @Nullable
+    public final ParentDeclaration parent;
+
+    /**
+     * The properties declared within the top-level properties block.
+     */
+    @NotNull
+    public final Map<@NotNull String, @NotNull String> properties;
+
+    /**
+     * The version declared by the POM itself, or null if it is inherited from the parent POM.
+     */
+    @Nullable
+    public final String version;
+
+    public ProjectObjectModel(@NotNull InputStream is) throws XMLStreamException {
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        List<@NotNull DependencyDeclaration> dependencies = Collections.emptyList();
+        List<@NotNull DependencyDeclaration> managedDependencies = null;
+        ParentDeclaration parent = null;
+        Map<@NotNull String, @NotNull String> properties = Collections.emptyMap();
+
+        XMLStreamReader reader = XMLUtil.createStreamReader(is);
+        try {
+            while (XMLUtil.nextChild(reader)) {
+                String name = reader.getLocalName();
+                switch (name) {
+                case "groupId":
+                    groupId = XMLUtil.readText(reader);
+                    break;
+                case "artifactId":
+                    artifactId = XMLUtil.readText(reader);
+                    break;
+                case "version":
+                    version = XMLUtil.readText(reader);
+                    break;
+                case "parent":
+                    parent = new ParentDeclaration();
+                    while (XMLUtil.nextChild(reader)) {
+                        switch (reader.getLocalName()) {
+                        case "groupId":
+                            parent.groupId = XMLUtil.readText(reader);
+                            break;
+                        case "artifactId":
+                            parent.artifactId = XMLUtil.readText(reader);
+                            break;
+                        case "version":
+                            parent.version = XMLUtil.readText(reader);
+                            break;
+                        default:
+                            XMLUtil.skipElement(reader);
+                            break;
+                        }
+                    }
+                    break;
+                case "properties":
+                    properties = new HashMap<>();
+                    while (XMLUtil.nextChild(reader)) {
+                        String key = reader.getLocalName();
+                        properties.put(key, XMLUtil.readText(reader));
+                    }
+                    break;
+                case "dependencies":
+                    dependencies = ProjectObjectModel.readDependencies(reader);
+                    break;
+                case "dependencyManagement":
+                    while (XMLUtil.nextChild(reader)) {
+                        if (reader.getLocalName().equals("dependencies")) {
+                            managedDependencies = ProjectObjectModel.readDependencies(reader);
+                        } else {
+                            XMLUtil.skipElement(reader);
+                        }
+                    }
+                    break;
+                default:
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        this.emptyElements.add(name);
+                    } else {
+                        if (event == XMLStreamConstants.START_ELEMENT) {
+                            XMLUtil.skipElement(reader);
+                        }
+                        XMLUtil.skipElement(reader);
+                    }
+                    break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.dependencies = dependencies;
+        this.managedDependencies = managedDependencies;
+        this.parent = parent;
+        this.properties = properties;
+    }
+}
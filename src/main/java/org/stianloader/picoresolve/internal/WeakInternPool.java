@@ -0,0 +1,92 @@
+package org.stianloader.picoresolve.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A thread-safe pool of canonical instances which are derived from a string, where each distinct string
+ * maps to at most one live instance. Instances are only weakly referenced by the pool and are
+ * thus reclaimed once they are no longer used elsewhere.
+ *
+ * <p>Values should strongly reference the string they were created from, as otherwise the key
+ * of the pool entry might get collected while the value is still in use, which would cause the value
+ * to be created anew the next time it is requested.
+ *
+ * <p>To reduce contention, the pool is split into multiple independently locked segments.
+ *
+ * @param <V> The type of the pooled values
+ */
+@Internal
+public class WeakInternPool<V> {
+
+    @NotNull
+    private final Map<String, WeakReference<V>> @NotNull[] segments;
+
+    @SuppressWarnings("unchecked")
+    public WeakInternPool(int segments) {
+        if (segments <= 0 || Integer.bitCount(segments) != 1) {
+            throw new IllegalArgumentException("segments must be a positive power of two");
+        }
+        this.segments = new Map[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new WeakHashMap<>();
+        }
+    }
+
+    public void clear() {
+        for (Map<String, WeakReference<V>> segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Obtains the pooled instance associated with the given string. If there is no such instance,
+     * it is created using the supplied factory and stored in the pool. The factory is invoked without holding
+     * any locks, which means that it may be invoked concurrently for the same key, in which case only
+     * the first stored instance is returned to all callers.
+     *
+     * @param key The string to obtain the instance for
+     * @param factory The function used to create the instance from the string
+     * @return The pooled instance
+     */
+    @NotNull
+    public V intern(@NotNull String key, @NotNull Function<@NotNull String, @NotNull V> factory) {
+        int hash = key.hashCode();
+        Map<String, WeakReference<V>> segment = this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+        synchronized (segment) {
+            WeakReference<V> ref = segment.get(key);
+            V value = ref == null ? null : ref.get();
+            if (value != null) {
+                return value;
+            }
+        }
+
+        V created = factory.apply(key);
+        synchronized (segment) {
+            WeakReference<V> ref = segment.get(key);
+            V value = ref == null ? null : ref.get();
+            if (value != null) {
+                return value;
+            }
+            segment.put(key, new WeakReference<>(created));
+        }
+        return created;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, WeakReference<V>> segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+}
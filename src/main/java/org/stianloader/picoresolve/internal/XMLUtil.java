@@ -1,11 +1,17 @@
 package org.stianloader.picoresolve.internal;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Element;
@@ -14,6 +20,9 @@ import org.w3c.dom.NodeList;
 
 public class XMLUtil {
 
+    @NotNull
+    private static final XMLInputFactory INPUT_FACTORY;
+
     public static class ChildElementIterable implements Iterable<@NotNull Element> {
 
         @NotNull
@@ -82,6 +91,28 @@ public class XMLUtil {
         }
     }
 
+    /**
+     * Creates a {@link XMLStreamReader} which is positioned at the start of the root element of the document.
+     * The reader does not support DTDs or external entities.
+     *
+     * @param is The stream to read the document from
+     * @return The created reader
+     * @throws XMLStreamException If the reader could not be created or if the document has no root element
+     */
+    @NotNull
+    public static XMLStreamReader createStreamReader(@NotNull InputStream is) throws XMLStreamException {
+        XMLStreamReader reader = XMLUtil.INPUT_FACTORY.createXMLStreamReader(is);
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return reader;
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                reader.close();
+                throw new XMLStreamException("Document does not have a root element", reader.getLocation());
+            }
+        }
+    }
+
     @Nullable
     public static String elementText(@NotNull Element node, @NotNull String name) {
         Element e = XMLUtil.optElement(node, name);
@@ -100,6 +131,27 @@ public class XMLUtil {
         return collected;
     }
 
+    /**
+     * Advances the reader to the next child element of the element the reader is currently in.
+     *
+     * @param reader The reader to advance
+     * @return True if the reader is now positioned at the start of a child element, false if the reader
+     * reached the end of the current element.
+     * @throws XMLStreamException If the underlying reader throws
+     */
+    public static boolean nextChild(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Premature end of document", reader.getLocation());
+            }
+        }
+    }
+
     @Nullable
     public static Element optElement(@NotNull Element parentNode, @NotNull String name) {
         Iterator<@NotNull Element> it = new ElementNodeListIterator(parentNode.getElementsByTagName(name));
@@ -124,4 +176,77 @@ public class XMLUtil {
         }
         return e;
     }
+
+    /**
+     * Reads the text content of the current element, including the text of all nested elements
+     * (as per the semantics of {@link org.w3c.dom.Node#getTextContent()}). Afterwards, the reader is
+     * positioned at the end of the current element.
+     *
+     * @param reader The reader to read from
+     * @return The text content of the element
+     * @throws XMLStreamException If the underlying reader throws
+     */
+    @NotNull
+    public static String readText(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        String text = null;
+        StringBuilder builder = null;
+        for (int depth = 1; depth != 0;) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                depth--;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                if (text == null) {
+                    text = reader.getText();
+                } else {
+                    if (builder == null) {
+                        builder = new StringBuilder(text);
+                    }
+                    builder.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+                break;
+            case XMLStreamConstants.END_DOCUMENT:
+                throw new XMLStreamException("Premature end of document", reader.getLocation());
+            default:
+                break;
+            }
+        }
+        if (builder != null) {
+            return builder.toString();
+        }
+        return text == null ? "" : text;
+    }
+
+    /**
+     * Skips the remainder of the current element, including all nested elements.
+     * Afterwards, the reader is positioned at the end of the current element.
+     *
+     * @param reader The reader to advance
+     * @throws XMLStreamException If the underlying reader throws
+     */
+    public static void skipElement(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        for (int depth = 1; depth != 0;) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Premature end of document", reader.getLocation());
+            }
+        }
+    }
+
+    static {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        INPUT_FACTORY = factory;
+    }
 }
@@ -1,25 +1,27 @@
 package org.stianloader.picoresolve.internal.meta;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.stianloader.picoresolve.internal.ConfusedResolverException;
 import org.stianloader.picoresolve.internal.XMLUtil;
-import org.stianloader.picoresolve.internal.XMLUtil.ChildElementIterable;
 import org.stianloader.picoresolve.version.MavenVersion;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.xml.sax.SAXException;
+import org.stianloader.picoresolve.version.VersionRange;
 
 @Internal
 public class VersionCatalogue {
@@ -72,32 +74,33 @@ public class VersionCatalogue {
         }
     }
 
+    /**
+     * Merges multiple catalogues (usually obtained from different repositories) into a single catalogue.
+     * The {@link #releaseVersions} of the returned catalogue are deduplicated and sorted in ascending order,
+     * as indicated by {@link #releaseVersionsSorted}.
+     *
+     * @param sources The catalogues to merge
+     * @return The merged catalogue
+     */
+    @NotNull
     public static VersionCatalogue merge(Iterable<VersionCatalogue> sources) {
         VersionCatalogue merged = new VersionCatalogue();
+        Set<MavenVersion> knownVersions = new HashSet<>();
+        Map<List<String>, Integer> snapshotIndices = new HashMap<>();
         for (VersionCatalogue source : sources) {
             for (MavenVersion ver : source.releaseVersions) {
-                if (!merged.releaseVersions.contains(ver)) {
+                if (knownVersions.add(ver)) {
                     merged.releaseVersions.add(ver);
                 }
             }
             for (SnapshotVersion ver : source.snapshotVersions) {
-                SnapshotVersion conflict = null;
-                for (SnapshotVersion old : merged.snapshotVersions) {
-                    if (Objects.equals(old.classifier, ver.classifier)
-                            && old.extension.equals(ver.extension)) {
-                        conflict = old;
-                        break;
-                    }
-                }
-                if (conflict == null) {
+                List<String> key = Arrays.asList(ver.classifier, ver.extension);
+                Integer conflictIndex = snapshotIndices.putIfAbsent(key, merged.snapshotVersions.size());
+                if (conflictIndex == null) {
                     merged.snapshotVersions.add(ver);
-                } else {
-                    if (conflict.lastUpdated.compareTo(ver.lastUpdated) < 0) {
-                        // Conflict was updated at an earlier date
-                        merged.snapshotVersions.remove(conflict);
-                        merged.snapshotVersions.add(ver);
-                        continue;
-                    }
+                } else if (merged.snapshotVersions.get(conflictIndex).lastUpdated.compareTo(ver.lastUpdated) < 0) {
+                    // Conflict was updated at an earlier date
+                    merged.snapshotVersions.set(conflictIndex, ver);
                 }
             }
             if (source.lastUpdateYear > merged.lastUpdateYear) {
@@ -160,6 +163,10 @@ public class VersionCatalogue {
             merged.localCopy |= source.localCopy;
         }
 
+        // List#sort is stable, so versions which compare equal while not being equal retain their original order
+        merged.releaseVersions.sort(null);
+        merged.releaseVersionsSorted = true;
+
         merged.lastUpdated = String.format("%04d%02d%02d%02d%02d%02d", merged.lastUpdateYear, merged.lastUpdateMonth,
                 merged.lastUpdateDay, merged.lastUpdateHour, merged.lastUpdateMinute, merged.lastUpdateSecond);
         return merged;
@@ -172,6 +179,29 @@ public class VersionCatalogue {
         return catalogue;
     }
 
+    @NotNull
+    private static SnapshotVersion readSnapshotVersion(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        String extension = null;
+        String lastUpdated = null;
+        String version = null;
+        String classifier = null;
+        while (XMLUtil.nextChild(reader)) {
+            String name = reader.getLocalName();
+            if (name.equals("extension") && extension == null) {
+                extension = XMLUtil.readText(reader);
+            } else if (name.equals("updated") && lastUpdated == null) {
+                lastUpdated = XMLUtil.readText(reader);
+            } else if (name.equals("value") && version == null) {
+                version = XMLUtil.readText(reader);
+            } else if (name.equals("classifier") && classifier == null) {
+                classifier = XMLUtil.readText(reader);
+            } else {
+                XMLUtil.skipElement(reader);
+            }
+        }
+        return new SnapshotVersion(extension, classifier, version, lastUpdated);
+    }
+
     public String fallbackSnapshotVersion;
     public String lastUpdated;
     public int lastUpdateDay;
@@ -186,6 +216,13 @@ public class VersionCatalogue {
     @NotNull
     public final List<@NotNull MavenVersion> releaseVersions = new ArrayList<>();
 
+    /**
+     * Whether {@link #releaseVersions} is known to be free of duplicates and sorted in ascending order.
+     * This is the case for catalogues produced by {@link #merge(Iterable)}, which allows callers
+     * to perform binary searches on the versions instead of having to iterate over every version.
+     */
+    public boolean releaseVersionsSorted;
+
     @NotNull
     public final List<@NotNull SnapshotVersion> snapshotVersions = new ArrayList<>();
 
@@ -193,61 +230,112 @@ public class VersionCatalogue {
         // No-arguments constructor needed for the #merge method
     }
 
-    public VersionCatalogue(InputStream is) throws SAXException, IOException, ParserConfigurationException {
-        Document xmlDoc;
-        {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-            xmlDoc = factory.newDocumentBuilder().parse(is);
-        }
-
-        if (xmlDoc == null) {
-            throw new NullPointerException("xmlDoc is null");
-        }
-
-        Element metadata = xmlDoc.getDocumentElement();
-        metadata.normalize();
-
-        Element versioning = XMLUtil.reqElement(metadata, "versioning");
-        Element versions = null;
-        Element snapshotVersions = null;
-
-        for (Element element : new ChildElementIterable(versioning)) {
-            switch (element.getTagName().toLowerCase(Locale.ROOT)) {
-            case "versions":
-                versions = element;
-                break;
-            case "release":
-                this.releaseVersion = MavenVersion.parse(Objects.requireNonNull(element.getTextContent()));
-                break;
-            case "latest":
-                this.latestVersion = MavenVersion.parse(Objects.requireNonNull(element.getTextContent()));
-                break;
-            case "lastupdated":
-                this.lastUpdated = element.getTextContent();
-
-                if (this.lastUpdated.length() != 14) {
-                    throw new ConfusedResolverException("Last updated string \"" + this.lastUpdated + "\" is not following an implemented standard.");
+    public VersionCatalogue(@NotNull InputStream is) throws XMLStreamException {
+        boolean versioningPresent = false;
+        boolean versionsPresent = false;
+        boolean snapshotVersionsPresent = false;
+        boolean snapshotPresent = false;
+        String metadataVersion = null;
+        String versioningVersion = null;
+        String timestamp = null;
+        String buildNumber = null;
+        String localCopy = null;
+
+        XMLStreamReader reader = XMLUtil.createStreamReader(is);
+        try {
+            while (XMLUtil.nextChild(reader)) {
+                String metadataChild = reader.getLocalName();
+                if (metadataChild.equals("version") && metadataVersion == null) {
+                    metadataVersion = XMLUtil.readText(reader);
+                    continue;
+                } else if (!metadataChild.equals("versioning") || versioningPresent) {
+                    XMLUtil.skipElement(reader);
+                    continue;
                 }
 
-                this.lastUpdateYear = Integer.parseInt(this.lastUpdated.substring(0, 4));
-                this.lastUpdateMonth = Integer.parseInt(this.lastUpdated.substring(4, 6));
-                this.lastUpdateDay = Integer.parseInt(this.lastUpdated.substring(6, 8));
-                this.lastUpdateHour = Integer.parseInt(this.lastUpdated.substring(8, 10));
-                this.lastUpdateMinute = Integer.parseInt(this.lastUpdated.substring(10, 12));
-                this.lastUpdateSecond = Integer.parseInt(this.lastUpdated.substring(12, 14));
-                break;
-            case "snapshotversions":
-                snapshotVersions = element;
-                break;
-            case "version":
-                // Encountered in https://repo1.maven.org/maven2/org/eclipse/core/commands/maven-metadata.xml
-                if (this.latestVersion != null) {
-                    throw new IllegalStateException();
+                versioningPresent = true;
+                while (XMLUtil.nextChild(reader)) {
+                    String versioningChild = reader.getLocalName();
+                    switch (versioningChild.toLowerCase(Locale.ROOT)) {
+                    case "versions":
+                        versionsPresent = true;
+                        while (XMLUtil.nextChild(reader)) {
+                            if (reader.getLocalName().equalsIgnoreCase("version")) {
+                                this.releaseVersions.add(MavenVersion.parse(XMLUtil.readText(reader)));
+                            } else {
+                                XMLUtil.skipElement(reader);
+                            }
+                        }
+                        break;
+                    case "release":
+                        this.releaseVersion = MavenVersion.parse(XMLUtil.readText(reader));
+                        break;
+                    case "latest":
+                        this.latestVersion = MavenVersion.parse(XMLUtil.readText(reader));
+                        break;
+                    case "lastupdated":
+                        this.lastUpdated = XMLUtil.readText(reader);
+
+                        if (this.lastUpdated.length() != 14) {
+                            throw new ConfusedResolverException("Last updated string \"" + this.lastUpdated + "\" is not following an implemented standard.");
+                        }
+
+                        this.lastUpdateYear = Integer.parseInt(this.lastUpdated.substring(0, 4));
+                        this.lastUpdateMonth = Integer.parseInt(this.lastUpdated.substring(4, 6));
+                        this.lastUpdateDay = Integer.parseInt(this.lastUpdated.substring(6, 8));
+                        this.lastUpdateHour = Integer.parseInt(this.lastUpdated.substring(8, 10));
+                        this.lastUpdateMinute = Integer.parseInt(this.lastUpdated.substring(10, 12));
+                        this.lastUpdateSecond = Integer.parseInt(this.lastUpdated.substring(12, 14));
+                        break;
+                    case "snapshotversions":
+                        snapshotVersionsPresent = true;
+                        while (XMLUtil.nextChild(reader)) {
+                            if (reader.getLocalName().equalsIgnoreCase("snapshotVersion")) {
+                                this.snapshotVersions.add(VersionCatalogue.readSnapshotVersion(reader));
+                            } else {
+                                XMLUtil.skipElement(reader);
+                            }
+                        }
+                        break;
+                    case "version":
+                        // Encountered in https://repo1.maven.org/maven2/org/eclipse/core/commands/maven-metadata.xml
+                        if (this.latestVersion != null) {
+                            throw new IllegalStateException();
+                        }
+                        versioningVersion = XMLUtil.readText(reader);
+                        this.latestVersion = MavenVersion.parse(versioningVersion);
+                        break;
+                    case "snapshot":
+                        if (!versioningChild.equals("snapshot") || snapshotPresent) {
+                            XMLUtil.skipElement(reader);
+                            break;
+                        }
+                        snapshotPresent = true;
+                        while (XMLUtil.nextChild(reader)) {
+                            String snapshotChild = reader.getLocalName();
+                            if (snapshotChild.equals("timestamp") && timestamp == null) {
+                                timestamp = XMLUtil.readText(reader);
+                            } else if (snapshotChild.equals("buildNumber") && buildNumber == null) {
+                                buildNumber = XMLUtil.readText(reader);
+                            } else if (snapshotChild.equals("localCopy") && localCopy == null) {
+                                localCopy = XMLUtil.readText(reader);
+                            } else {
+                                XMLUtil.skipElement(reader);
+                            }
+                        }
+                        break;
+                    default:
+                        XMLUtil.skipElement(reader);
+                        break;
+                    }
                 }
-                this.latestVersion = MavenVersion.parse(Objects.requireNonNull(element.getTextContent()));
-                break;
             }
+        } finally {
+            reader.close();
+        }
+
+        if (!versioningPresent) {
+            throw new NoSuchElementException("No element tagged versioning within the metadata element");
         }
 
         // This one is interesting.
@@ -262,53 +350,46 @@ public class VersionCatalogue {
         // Of course we could just invalidate the cache and request the file again, but this would introduce
         // further latency as well as complexity in the library (as this error state would most likely need to be handled
         // by the caller, as the needed repository references are unavailable within this constructor).
-        Element snapshots = XMLUtil.optElement(versioning, "snapshot");
-        Element versionElement = XMLUtil.optElement(metadata, "version");
-
-        if ((versions == null && snapshotVersions == null)
-                && (snapshots == null || versionElement == null)) {
+        // The version of the snapshot is usually stored as a direct child of the metadata element, but some files
+        // only store it within the versioning element.
+        String snapshotBaseVersion = metadataVersion != null ? metadataVersion : versioningVersion;
+        if ((!versionsPresent && !snapshotVersionsPresent)
+                && (!snapshotPresent || snapshotBaseVersion == null)) {
             // Even this amount of data is too little for our resolver at the moment, so we will have to throw the towel here
             throw new ConfusedResolverException("Data did not contain a valid maven-metadata.xml file that lists the versions of an artifact.");
         }
 
-        if (snapshots != null && versionElement != null) {
-            Element timestamp = XMLUtil.optElement(snapshots, "timestamp");
-            Element buildNr = XMLUtil.optElement(snapshots, "buildNumber");
-            Element localCopy = XMLUtil.optElement(snapshots, "localCopy");
-            if ((timestamp == null || buildNr == null) && localCopy == null) {
-                throw new ConfusedResolverException("Too little data remaining to be able to build up a fallback snapshot version: " + metadata.toString());
+        if (snapshotPresent && snapshotBaseVersion != null) {
+            if ((timestamp == null || buildNumber == null) && localCopy == null) {
+                throw new ConfusedResolverException("Too little data remaining to be able to build up a fallback snapshot version for version " + snapshotBaseVersion);
             }
             if (localCopy != null) {
-                this.localCopy = "true".equalsIgnoreCase(localCopy.getTextContent());
+                this.localCopy = "true".equalsIgnoreCase(localCopy);
             }
-            if (timestamp != null && buildNr != null) {
-                int index = versionElement.getTextContent().toLowerCase().lastIndexOf("-snapshot");
+            if (timestamp != null && buildNumber != null) {
+                int index = snapshotBaseVersion.toLowerCase(Locale.ROOT).lastIndexOf("-snapshot");
                 if (index == -1) {
-                    this.fallbackSnapshotVersion = versionElement.getTextContent() + "-" + timestamp.getTextContent() + "-" + buildNr.getTextContent();
+                    this.fallbackSnapshotVersion = snapshotBaseVersion + "-" + timestamp + "-" + buildNumber;
                 } else {
-                    this.fallbackSnapshotVersion = versionElement.getTextContent().substring(0, index) + "-" + timestamp.getTextContent() + "-" + buildNr.getTextContent();
-                }
-            }
-        }
-
-        if (versions != null) {
-            for (Element element : new ChildElementIterable(versions)) {
-                if (element.getTagName().equalsIgnoreCase("version")) {
-                    this.releaseVersions.add(MavenVersion.parse(Objects.requireNonNull(element.getTextContent())));
+                    this.fallbackSnapshotVersion = snapshotBaseVersion.substring(0, index) + "-" + timestamp + "-" + buildNumber;
                 }
             }
         }
+    }
 
-        if (snapshotVersions != null) {
-            for (Element element : new ChildElementIterable(snapshotVersions)) {
-                if (element.getTagName().equalsIgnoreCase("snapshotVersion")) {
-                    String extension = XMLUtil.elementText(element, "extension");
-                    String lastUpdated = XMLUtil.elementText(element, "updated");
-                    String version = XMLUtil.elementText(element, "value");
-                    String classifier = XMLUtil.elementText(element, "classifier");
-                    this.snapshotVersions.add(new SnapshotVersion(extension, classifier, version, lastUpdated));
-                }
-            }
+    /**
+     * Selects the newest release version of this catalogue which lies within the given range.
+     * If the release versions are known to be sorted, {@link VersionRange#selectFromSorted(List, MavenVersion)}
+     * is used, otherwise this method falls back to {@link VersionRange#selectFrom(java.util.Collection, MavenVersion)}.
+     *
+     * @param range The range to select the version from
+     * @return The selected version, or null if no version matches the range
+     */
+    @Nullable
+    public MavenVersion selectVersion(@NotNull VersionRange range) {
+        if (this.releaseVersionsSorted) {
+            return range.selectFromSorted(this.releaseVersions, this.releaseVersion);
         }
+        return range.selectFrom(this.releaseVersions, this.releaseVersion);
     }
 }
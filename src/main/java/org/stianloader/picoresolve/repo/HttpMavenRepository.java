@@ -0,0 +1,40 @@
+package org.stianloader.picoresolve.repo;
+
+import java.net.URI;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link MavenRepository} that is accessed over HTTP or HTTPS.
+ *
+ * <p>On Java 8 this class behaves exactly like {@link URIMavenRepository}, that is every resource is fetched using
+ * a separate {@link java.net.URLConnection} which blocks a thread of the executor for the entire transfer.
+ * On Java 11 and above this class instead makes use of the {@code java.net.http.HttpClient}, sending requests
+ * asynchronously. All instances of this class share the same client, allowing requests to the same host to reuse
+ * connections. If the server supports HTTP/2, all concurrent requests to a host are multiplexed over a single
+ * connection. Resources whose URI does not make use of the http or https scheme are always fetched like
+ * {@link URIMavenRepository} would. The same applies to subclasses which
+ * {@link #HttpMavenRepository(String, URI, boolean) customize fetching}, so that their customizations are not bypassed.
+ *
+ * <p>The Java 11 implementation is shipped as part of the multi-release jar and is picked up automatically
+ * by the JVM.
+ */
+public class HttpMavenRepository extends URIMavenRepository {
+
+    public HttpMavenRepository(@NotNull String id, @NotNull URI base) {
+        super(id, base);
+    }
+
+    /**
+     * Creates a repository which fetches resources from the given base URI, stating whether
+     * the repository customizes how resources are fetched.
+     *
+     * @param id The id of the repository
+     * @param base The URI of the repository root
+     * @param customFetching Whether the subclass customizes how resources are fetched
+     * @see URIMavenRepository#URIMavenRepository(String, URI, boolean)
+     */
+    protected HttpMavenRepository(@NotNull String id, @NotNull URI base, boolean customFetching) {
+        super(id, base, customFetching);
+    }
+}
@@ -14,11 +14,15 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.stianloader.picoresolve.internal.ConcurrencyUtil;
 import org.stianloader.picoresolve.internal.JavaInterop;
 import org.stianloader.picoresolve.internal.MultiCompletableFuture;
@@ -35,12 +39,137 @@ import org.stianloader.picoresolve.internal.meta.ResolverMetaStatus;
  * file IO with tools such as inotifywait.
  */
 public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
+
+    /**
+     * Downloads a file from a list of candidate repositories. Only the first candidate is queried initially,
+     * the next candidate is queried once the previous candidate failed or did not deliver the file within the
+     * {@link MavenLocalRepositoryNegotiator#setHedgingDelay(long) hedging delay}.
+     *
+     * <p>Every repository downloads into a file of its own, the file of the first successful download is returned
+     * while the files of all other downloads are deleted.
+     */
+    private class HedgedTransfer {
+        @NotNull
+        private final List<CompletableFuture<RepositoryAttachedValue<Path>>> attempts = new ArrayList<>();
+        @NotNull
+        private final List<MavenRepository> candidates;
+        @NotNull
+        private final CompletableFuture<RepositoryAttachedValue<Path>> combined;
+        @NotNull
+        private final Executor executor;
+        @NotNull
+        private final LastUpdatedFile lastUpdated;
+        @NotNull
+        private final Path localFile;
+        @NotNull
+        private final AtomicInteger nextCandidate = new AtomicInteger();
+        @NotNull
+        private final String path;
+        @Nullable
+        private final RepositoryRanking ranking;
+
+        HedgedTransfer(@NotNull List<MavenRepository> candidates, @NotNull String path, @NotNull Path localFile, @NotNull LastUpdatedFile lastUpdated, @Nullable RepositoryRanking ranking, @NotNull Executor executor) {
+            this.candidates = candidates;
+            this.path = path;
+            this.ranking = ranking;
+            this.localFile = localFile;
+            this.lastUpdated = lastUpdated;
+            this.executor = executor;
+            for (int i = 0; i < candidates.size(); i++) {
+                this.attempts.add(new CompletableFuture<>());
+            }
+            this.combined = new MultiCompletableFuture<>(this.attempts);
+        }
+
+        private void queryNext() {
+            if (this.combined.isDone()) {
+                return;
+            }
+            int index = this.nextCandidate.getAndIncrement();
+            if (index >= this.candidates.size()) {
+                return;
+            }
+
+            MavenRepository remote = this.candidates.get(index);
+            CompletableFuture<RepositoryAttachedValue<Path>> attempt = this.attempts.get(index);
+            AtomicBoolean hedged = new AtomicBoolean();
+            Runnable hedge = () -> {
+                if (hedged.compareAndSet(false, true)) {
+                    this.queryNext();
+                }
+            };
+
+            Path part;
+            try {
+                // Files.createTempFile is not used as it would restrict the permissions of the file to the current user
+                part = Files.createFile(this.localFile.resolveSibling(this.localFile.getFileName().toString() + "." + UUID.randomUUID() + ".part"));
+            } catch (IOException e) {
+                attempt.completeExceptionally(e);
+                hedge.run();
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            CompletableFuture<RepositoryAttachedValue<Path>> transfer = remote.transferResource(this.path, part, this.executor);
+            transfer.whenComplete((rav, ex) -> {
+                RepositoryRanking ranking = this.ranking;
+                if (ex != null) {
+                    MavenLocalRepositoryNegotiator.deletePartFile(part);
+                    if (ranking != null) {
+                        ranking.recordMiss(this.path, remote);
+                    }
+                    this.lastUpdated.updateEntryErrored(remote.getPlaintextURL(), ex.toString(), System.currentTimeMillis());
+                    attempt.completeExceptionally(ex);
+                    hedge.run();
+                    return;
+                }
+                if (ranking != null) {
+                    ranking.recordHit(this.path, remote, (System.nanoTime() - startTime) / 1_000_000L);
+                }
+                this.lastUpdated.updateEntrySuccess(remote.getPlaintextURL(), System.currentTimeMillis());
+                attempt.complete(rav);
+                this.combined.whenComplete((winner, ignored) -> {
+                    // Downloads which completed after the first one are discarded
+                    if (winner == null || winner.getValue() != part) {
+                        MavenLocalRepositoryNegotiator.deletePartFile(part);
+                    }
+                });
+            });
+
+            long delay = MavenLocalRepositoryNegotiator.this.hedgingDelay;
+            if (delay > 0 && this.ranking != null) {
+                long rankedDelay = this.ranking.getHedgingDelay(this.path, remote);
+                if (rankedDelay >= 0) {
+                    delay = rankedDelay;
+                }
+            }
+            if (delay == 0) {
+                hedge.run();
+            } else if (delay > 0 && !transfer.isDone()) {
+                ConcurrencyUtil.runDelayed(() -> {
+                    if (!transfer.isDone()) {
+                        this.executor.execute(hedge);
+                    }
+                }, delay);
+            }
+        }
+
+        @NotNull
+        CompletableFuture<RepositoryAttachedValue<Path>> start() {
+            this.queryNext();
+            return this.combined;
+        }
+    }
+
     @NotNull
     private final Path mavenLocal;
     @NotNull
     private final Set<String> remoteIds = new HashSet<>();
     @NotNull
     private final List<MavenRepository> remoteRepositories = new ArrayList<>();
+    private long hedgingDelay = 0L;
+    @Nullable
+    private volatile RepositoryRanking ranking;
     private boolean writeMetadata = true;
 
     public MavenLocalRepositoryNegotiator(@NotNull Path mavenLocal) {
@@ -133,7 +262,7 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
             // This future writes the raw bytes fetched from the remote to disk. It then returns the path the bytes were written to.
             CompletableFuture<RepositoryAttachedValue<Path>> future = fetchFuture.thenApply((rav) -> {
                 resolverStatus.updateEntrySuccess(remote.getRepositoryId(), System.currentTimeMillis());
-                write(rav.getValue(), localFile);
+                this.write(rav.getValue(), localFile);
                 return new RepositoryAttachedValue<>(rav.getRepository(), localFile);
             });
             // This future will use pre-existing caches should a download not be possible.
@@ -237,31 +366,20 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
             return CompletableFuture.completedFuture(new RepositoryAttachedValue<>(null, localFile));
         }
 
-        List<CompletableFuture<RepositoryAttachedValue<byte[]>>> futures = new ArrayList<>();
-        for (MavenRepository remote : candidateRepositories) {
-            CompletableFuture<RepositoryAttachedValue<byte[]>> future = remote.getResource(path, executor);
-            future.exceptionally((ex) -> {
-                lastUpdated.updateEntryErrored(remote.getPlaintextURL(), ex.toString(), System.currentTimeMillis());
-                return null;
-            });
-            future.thenRun(() -> {
-                lastUpdated.updateEntrySuccess(remote.getPlaintextURL(), System.currentTimeMillis());
-            });
-            futures.add(future);
-            if (future.isDone() && !future.isCompletedExceptionally()) {
-                break; // Let's note waste too much CPU time when running with a synchronous executor
-            }
+        RepositoryRanking ranking = this.ranking;
+        if (ranking != null && candidateRepositories.size() > 1) {
+            ranking.rank(path, candidateRepositories);
         }
 
-        CompletableFuture<RepositoryAttachedValue<byte[]>> combined;
-        if (!futures.isEmpty()) {
-            combined = new MultiCompletableFuture<>(futures);
+        CompletableFuture<RepositoryAttachedValue<Path>> combined;
+        if (!candidateRepositories.isEmpty()) {
+            combined = new HedgedTransfer(candidateRepositories, path, localFile, lastUpdated, ranking, executor).start();
         } else {
             combined = JavaInterop.failedFuture(new IOException("There are no remote repositories to fetch the file from and the file is not stored locally.").fillInStackTrace());
         }
 
         CompletableFuture<RepositoryAttachedValue<Path>> ret = ConcurrencyUtil.exceptionally(combined.thenApply((rav) -> {
-            write(rav.getValue(), localFile);
+            this.move(rav.getValue(), localFile);
             MavenRepository originRepository = rav.getRepository();
             if (originRepository != null) {
                 repoProps.setSourceRepository(localFile.getFileName().toString(), originRepository.getRepositoryId());
@@ -287,6 +405,48 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         return ret;
     }
 
+    /**
+     * Sets the delay after which a file is additionally requested from the next candidate repository should the
+     * previous repository not have delivered the file yet. Regardless of the delay, the next repository is queried
+     * as soon as the previous repository failed to deliver the file. Repositories are queried in the order in which
+     * they were {@link #addRepository(MavenRepository) added}, unless a {@link #setRepositoryRanking(RepositoryRanking) ranking}
+     * is set.
+     *
+     * <p>A delay of 0 causes all candidate repositories to be queried at once, while a negative delay causes
+     * the next repository to only be queried once the previous repository failed. Lower values reduce the
+     * latency of requests that are directed at a slow repository at the cost of sending more requests overall.
+     * Defaults to 0, that is all repositories are queried at once. A positive delay trades some latency for fewer
+     * requests, which may be sensible if many repositories are configured. If a ranking is set, a positive delay is
+     * only used for repositories for which the ranking does not
+     * {@link RepositoryRanking#getHedgingDelay(String, MavenRepository) provide} a delay.
+     *
+     * @param delay The delay in milliseconds
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenLocalRepositoryNegotiator setHedgingDelay(long delay) {
+        this.hedgingDelay = delay;
+        return this;
+    }
+
+    /**
+     * Sets the ranking which decides the order in which the candidate repositories of a file are queried.
+     * The ranking is further informed about the outcome of every request. In combination with
+     * {@link #setHedgingDelay(long) hedging}, repositories which are ranked last are usually not queried at all.
+     * By default no ranking is set and repositories are queried in the order in which they were
+     * {@link #addRepository(MavenRepository) added}.
+     *
+     * @param ranking The ranking to use, or null to query repositories in the order in which they were added
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenLocalRepositoryNegotiator setRepositoryRanking(@Nullable RepositoryRanking ranking) {
+        this.ranking = ranking;
+        return this;
+    }
+
     @Override
     @NotNull
     @Contract(mutates = "this", pure = false, value = "-> this")
@@ -295,13 +455,19 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         return this;
     }
 
-    protected void write(byte[] data, Path to) {
-        FileLock fileLock = null;
+    private static void deletePartFile(@NotNull Path part) {
         try {
-            Path parts = to.resolveSibling(to.getFileName().toString() + ".part");
-            Path lock = to.resolveSibling(to.getFileName().toString() + ".part.lock");
+            Files.deleteIfExists(part);
+        } catch (IOException ignored) {
+        }
+    }
 
-            FileChannel lockChannel = FileChannel.open(lock, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.DELETE_ON_CLOSE);
+    @NotNull
+    private static FileLock lockPartFile(@NotNull Path to) throws IOException {
+        Path lock = to.resolveSibling(to.getFileName().toString() + ".part.lock");
+        FileChannel lockChannel = FileChannel.open(lock, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.DELETE_ON_CLOSE);
+        try {
+            FileLock fileLock;
             long idleTime = 0L;
             while ((fileLock = lockChannel.tryLock()) == null) {
                 try {
@@ -309,25 +475,59 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
                 } catch (InterruptedException ignored) {
                 }
                 if ((idleTime += 10L) > 10_000L) {
-                    throw new IOException("Waited more than 10 seconds to acquire lock on " + parts.toAbsolutePath());
+                    throw new IOException("Waited more than 10 seconds to acquire lock on " + lock.toAbsolutePath());
                 }
             }
+            return fileLock;
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
 
-            Files.write(parts, data, StandardOpenOption.CREATE_NEW);
-            Files.move(parts, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Moves a fully written file to its final location, replacing any existing file at that location.
+     * Every file that is fetched from a remote repository (artifacts as well as maven-metadata.xml files) is first
+     * written to a part file alongside its final location and then passed to this method,
+     * so subclasses which need to post-process or relocate fetched files should override this method.
+     *
+     * @param part The file to move
+     * @param to The final location of the file
+     */
+    protected void move(@NotNull Path part, @NotNull Path to) {
+        try {
+            FileLock fileLock = MavenLocalRepositoryNegotiator.lockPartFile(to);
+            try {
+                Files.move(part, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                fileLock.release();
+                fileLock.acquiredBy().close();
+            }
+        } catch (IOException e) {
+            MavenLocalRepositoryNegotiator.deletePartFile(part);
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            fileLock.release();
-            fileLock.acquiredBy().close();
+    /**
+     * Writes the contents of a maven-metadata.xml file to a part file and {@link #move(Path, Path) moves} it
+     * to its final location.
+     *
+     * @param data The contents of the file
+     * @param to The final location of the file
+     * @deprecated Artifacts are streamed to a part file which is handed to {@link #move(Path, Path)} directly,
+     * so this method is only invoked for maven-metadata.xml files. Override {@link #move(Path, Path)} instead,
+     * which is invoked for all fetched files.
+     */
+    @Deprecated
+    protected void write(byte[] data, Path to) {
+        Path part = to.resolveSibling(to.getFileName().toString() + "." + UUID.randomUUID() + ".part");
+        try {
+            Files.write(part, data, StandardOpenOption.CREATE_NEW);
         } catch (IOException e) {
+            MavenLocalRepositoryNegotiator.deletePartFile(part);
             throw new UncheckedIOException(e);
-        } finally {
-            if (fileLock != null) {
-                try {
-                    fileLock.release();
-                    fileLock.acquiredBy().close();
-                } catch (IOException ignored) {
-                }
-            }
         }
+        this.move(part, to);
     }
 }
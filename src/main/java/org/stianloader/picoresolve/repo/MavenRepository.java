@@ -1,5 +1,9 @@
 package org.stianloader.picoresolve.repo;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
@@ -11,6 +15,34 @@ public interface MavenRepository {
     @NotNull
     CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor);
 
+    /**
+     * Downloads a resource and writes it to the given file, replacing the contents of the file if it already exists.
+     * Contrary to {@link #getResource(String, Executor)}, implementations should not buffer the entire resource
+     * in memory, which is especially relevant for large artifacts.
+     *
+     * <p>The contents of the target file are undefined if the returned {@link CompletableFuture} completes exceptionally.
+     * Callers are thus advised to write to a temporary file which is moved to its final location afterwards.
+     *
+     * <p>The default implementation delegates to {@link #getResource(String, Executor)} and thus buffers the resource
+     * in memory nonetheless.
+     *
+     * @param path The path relative to the repository root where the resource is located.
+     * @param target The file to write the resource to.
+     * @param executor The executor with whom asynchronous operations should be performed.
+     * @return A {@link CompletableFuture} which upon non-exceptional completion stores the file the resource was written to.
+     */
+    @NotNull
+    default CompletableFuture<RepositoryAttachedValue<Path>> transferResource(@NotNull String path, @NotNull Path target, @NotNull Executor executor) {
+        return this.getResource(path, executor).thenApply((rav) -> {
+            try {
+                Files.write(target, rav.getValue());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new RepositoryAttachedValue<>(rav.getRepository(), target);
+        });
+    }
+
     @NotNull
     @Contract(pure = true)
     String getRepositoryId();
@@ -0,0 +1,55 @@
+package org.stianloader.picoresolve.repo;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides the order in which the candidate repositories of a file are queried by a {@link MavenLocalRepositoryNegotiator}
+ * and is informed about the outcome of every request. Implementations must be thread-safe.
+ *
+ * <p>picoresolve does not ship an implementation of this interface. An implementation which ranks repositories
+ * by their observed latency and hit rate is provided by the optional picoresolve-extras project.
+ *
+ * @see MavenLocalRepositoryNegotiator#setRepositoryRanking(RepositoryRanking)
+ */
+public interface RepositoryRanking {
+
+    /**
+     * Obtains the delay after which the next candidate repository should additionally be queried,
+     * should the given repository not have delivered the file yet.
+     * This method is only called if the {@link MavenLocalRepositoryNegotiator#setHedgingDelay(long) hedging delay}
+     * of the negotiator is positive.
+     *
+     * @param path The path of the requested file, relative to the root of the repository
+     * @param repository The repository that is queried
+     * @return The delay in milliseconds, or a negative value to use the hedging delay of the negotiator
+     */
+    long getHedgingDelay(@NotNull String path, @NotNull MavenRepository repository);
+
+    /**
+     * Orders the candidate repositories of a file in the order in which they should be queried.
+     * The candidates are initially ordered in the order in which they were added to the negotiator.
+     *
+     * @param path The path of the requested file, relative to the root of the repository
+     * @param candidates The candidate repositories, which are to be reordered in place
+     */
+    void rank(@NotNull String path, @NotNull List<MavenRepository> candidates);
+
+    /**
+     * Records that a repository delivered a file.
+     *
+     * @param path The path of the requested file, relative to the root of the repository
+     * @param repository The repository that delivered the file
+     * @param latency The time between sending the request and receiving the entire file, in milliseconds
+     */
+    void recordHit(@NotNull String path, @NotNull MavenRepository repository, long latency);
+
+    /**
+     * Records that a repository failed to deliver a file, usually because it does not contain it.
+     *
+     * @param path The path of the requested file, relative to the root of the repository
+     * @param repository The repository that failed to deliver the file
+     */
+    void recordMiss(@NotNull String path, @NotNull MavenRepository repository);
+}
@@ -5,6 +5,10 @@ import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
@@ -15,36 +19,133 @@ import org.stianloader.picoresolve.internal.JavaInterop;
 
 public class URIMavenRepository implements MavenRepository {
 
+    @NotNull
+    private static URI normalizeBase(@NotNull URI base) {
+        if (base.getPath().isEmpty()) {
+            return base.resolve("/");
+        } else if (!base.getPath().endsWith("/")) {
+            return base.resolve(base.getPath() + "/");
+        }
+        return base;
+    }
+
     @NotNull
     private final URI base;
+    /**
+     * Whether the repository customizes how resources are fetched, see {@link #URIMavenRepository(String, URI, boolean)}.
+     */
+    final boolean customFetching;
     @NotNull
     private final String id;
 
+    /**
+     * Creates a repository which fetches resources from the given base URI.
+     *
+     * <p>Subclasses which invoke this constructor are assumed to customize how resources are fetched,
+     * as explained in {@link #URIMavenRepository(String, URI, boolean)}.
+     *
+     * @param id The id of the repository
+     * @param base The URI of the repository root
+     */
     public URIMavenRepository(@NotNull String id, @NotNull URI base) {
-        if (base.getPath().isEmpty()) {
-            base = base.resolve("/");
-        } else if (!base.getPath().endsWith("/")) {
-            base = base.resolve(base.getPath() + "/");
-        }
-        this.base = base;
+        this.base = URIMavenRepository.normalizeBase(base);
         this.id = id;
+        this.customFetching = this.getClass() != URIMavenRepository.class && this.getClass() != HttpMavenRepository.class;
     }
 
-    protected byte @NotNull[] getResource0(@NotNull String path) throws Exception {
-        URI resolved = this.base.resolve(path);
-        URLConnection connection = resolved.toURL().openConnection();
+    /**
+     * Creates a repository which fetches resources from the given base URI, stating whether
+     * the repository customizes how resources are fetched.
+     *
+     * <p>If customFetching is true, {@link #transferResource0(String, Path)} writes the result of {@link #getResource0(String)}
+     * to the target file instead of streaming the resource from {@link #openResource(String)}, so that overrides of
+     * either method are honored. Further, {@link HttpMavenRepository} does not send requests through its
+     * own client. Subclasses which override {@link #getResource0(String)} must pass true, while subclasses which only
+     * override {@link #openResource(String)} or {@link #transferResource0(String, Path)} (or none of the methods
+     * that fetch resources) may pass false in order to stream resources to disk.
+     *
+     * @param id The id of the repository
+     * @param base The URI of the repository root
+     * @param customFetching Whether the subclass customizes how resources are fetched
+     */
+    protected URIMavenRepository(@NotNull String id, @NotNull URI base, boolean customFetching) {
+        this.base = URIMavenRepository.normalizeBase(base);
+        this.id = id;
+        this.customFetching = customFetching;
+    }
+
+    /**
+     * Obtains the location of a resource, as used by {@link #getResource(String, Executor)}.
+     *
+     * @param path The path relative to the repository root where the resource is located.
+     * @return The absolute {@link URI} of the resource
+     */
+    @NotNull
+    @Contract(pure = true)
+    protected URI resolve(@NotNull String path) {
+        return this.base.resolve(path);
+    }
+
+    /**
+     * Opens a stream to the contents of a resource. Both {@link #getResource0(String)} and
+     * {@link #transferResource0(String, Path)} obtain resources through this method, so subclasses which need
+     * to customize requests (for example to add headers, to authenticate or to rewrite URLs) should override this method.
+     *
+     * @param path The path relative to the repository root where the resource is located.
+     * @return A stream of the contents of the resource, which is closed by the caller
+     * @throws Exception If the resource could not be obtained
+     */
+    @NotNull
+    protected InputStream openResource(@NotNull String path) throws Exception {
+        URLConnection connection = this.resolve(path).toURL().openConnection();
         if (connection instanceof HttpURLConnection) {
             HttpURLConnection httpUrlConn = (HttpURLConnection) connection;
             if ((httpUrlConn.getResponseCode() / 100) != 2) {
                 throw new IOException("Query for " + connection.getURL() + " returned with a response code of " + httpUrlConn.getResponseCode() + " (" + httpUrlConn.getResponseMessage() + ")");
             }
         }
+        return connection.getInputStream();
+    }
 
-        try (InputStream is = connection.getInputStream()) {
+    /**
+     * Reads the contents of a resource into memory, as used by {@link #getResource(String, Executor)}.
+     *
+     * <p>Subclasses which override this method instead of {@link #openResource(String)} are still honored when
+     * transferring resources, provided that they {@link #URIMavenRepository(String, URI, boolean) customize fetching},
+     * in which case {@link #transferResource0(String, Path)} writes the result of this method to the target file
+     * instead of streaming the resource.
+     *
+     * @param path The path relative to the repository root where the resource is located.
+     * @return The contents of the resource
+     * @throws Exception If the resource could not be obtained
+     */
+    protected byte @NotNull[] getResource0(@NotNull String path) throws Exception {
+        try (InputStream is = this.openResource(path)) {
             return JavaInterop.readAllBytes(is);
         }
     }
 
+    /**
+     * Writes the contents of a resource to a file, as used by {@link #transferResource(String, Path, Executor)}.
+     * The resource is streamed from {@link #openResource(String)} to the file without being buffered in memory,
+     * unless the repository {@link #URIMavenRepository(String, URI, boolean) customizes fetching}.
+     *
+     * @param path The path relative to the repository root where the resource is located.
+     * @param target The file to write the resource to
+     * @throws Exception If the resource could not be obtained or written
+     */
+    protected void transferResource0(@NotNull String path, @NotNull Path target) throws Exception {
+        if (this.customFetching) {
+            byte[] data = this.getResource0(path);
+            Files.write(target, data, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            return;
+        }
+        try (InputStream is = this.openResource(path);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            JavaInterop.transfer(is, out);
+        }
+    }
+
     @Override
     @NotNull
     public CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor) {
@@ -53,6 +154,15 @@ public class URIMavenRepository implements MavenRepository {
         }, executor);
     }
 
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<Path>> transferResource(@NotNull String path, @NotNull Path target, @NotNull Executor executor) {
+        return ConcurrencyUtil.schedule(() -> {
+            this.transferResource0(path, target);
+            return new RepositoryAttachedValue<>(this, target);
+        }, executor);
+    }
+
     @Override
     @NotNull
     @Contract(pure = true)
@@ -1,15 +1,12 @@
 package org.stianloader.picoresolve.version;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 
 import org.jetbrains.annotations.NotNull;
-import org.stianloader.picoresolve.internal.ConfusedResolverException;
-import org.stianloader.picoresolve.internal.JavaInterop;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.internal.WeakInternPool;
 
 /**
  * Object that represents a version that maven can understand and compare.
@@ -17,177 +14,399 @@ import org.stianloader.picoresolve.internal.JavaInterop;
  */
 public class MavenVersion implements Comparable<MavenVersion> {
 
-    private final List<MavenVersionPart> parts;
+    /**
+     * The canonical form of the version, consisting of all parts with their prefixes.
+     * Two versions are equal if and only if their canonical forms are equal.
+     * For example "1.0-A1" and "1-alpha-1" both have the canonical form "-1-alpha-1".
+     */
+    @NotNull
+    private final String canonical;
+    private final int hash;
     private final String origin;
 
+    /**
+     * The compact representation of purely numeric versions with at most {@link #PACKED_SLOTS} parts,
+     * each of which may not exceed {@link #PACKED_MAX_VALUE}. Each part occupies a 16-bit slot, starting
+     * with the most significant bits. A slot consists of a presence bit, followed by a bit that is set if the part
+     * is prefixed by '.' (as opposed to '-') and the value of the part. Absent parts have a slot value of 0.
+     * This layout means that comparing two packed versions as unsigned longs yields the same result
+     * as comparing the versions part by part.
+     *
+     * <p>Only valid if {@link #parts} is null.
+     */
+    private final long packed;
+
+    /**
+     * The parts of the version, or null if the version is represented by {@link #packed}.
+     */
+    private final MavenVersionPart @Nullable[] parts;
+
+    private static final long PACKED_DOT_PREFIX = 1 << 14;
+    private static final int PACKED_MAX_VALUE = (1 << 14) - 1;
+    private static final long PACKED_PRESENT = 1 << 15;
+    private static final int PACKED_SLOTS = 4;
+
+    /**
+     * JVM-wide pool of parsed versions, keyed by their {@link #canonical} form.
+     */
+    @NotNull
+    private static final WeakInternPool<@NotNull MavenVersion> INTERN_POOL = new WeakInternPool<>(16);
+
+    private static volatile boolean interning = false;
+
+    /**
+     * Marker for the entries array in {@link #parse(String)}, corresponding to a token with the value "0".
+     */
+    private static final int ZERO_ENTRY = Integer.MIN_VALUE;
+    /**
+     * Marker literal for empty tokens, which are treated as "0". Compared by identity.
+     */
+    @NotNull
+    private static final String ZERO_LITERAL = new String("0");
+
     private MavenVersion(String origin, List<MavenVersionPart> parts) {
-        this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
         this.origin = origin;
+
+        long packed = 0;
+        boolean packable = parts.size() <= MavenVersion.PACKED_SLOTS;
+        for (int i = 0; packable && i < parts.size(); i++) {
+            MavenVersionPart part = parts.get(i);
+            if (!(part instanceof NumericVersionPart)) {
+                packable = false;
+                break;
+            }
+            int value = ((NumericVersionPart) part).getValue();
+            if (value < 0 || value > MavenVersion.PACKED_MAX_VALUE) {
+                packable = false;
+                break;
+            }
+            long slot = MavenVersion.PACKED_PRESENT | value;
+            if (part.getPrefixCodepoint() == '.') {
+                slot |= MavenVersion.PACKED_DOT_PREFIX;
+            }
+            packed |= slot << (16 * (MavenVersion.PACKED_SLOTS - 1 - i));
+        }
+        this.packed = packable ? packed : 0;
+        this.parts = packable ? null : parts.toArray(new MavenVersionPart[0]);
+
+        StringBuilder canonical = new StringBuilder();
+        for (MavenVersionPart part : parts) {
+            canonical.appendCodePoint(part.getPrefixCodepoint());
+            canonical.append(part.stringifyContent());
+        }
+        this.canonical = canonical.toString();
+        this.hash = this.canonical.hashCode();
     }
 
+    private MavenVersion(String origin, @NotNull MavenVersion pooled) {
+        this.origin = origin;
+        this.canonical = pooled.canonical;
+        this.hash = pooled.hash;
+        this.packed = pooled.packed;
+        this.parts = pooled.parts;
+    }
 
+    /**
+     * Creates the version part corresponding to a token of the version string.
+     *
+     * @param prefix The codepoint of the separator preceding the token
+     * @param string The lowercased version string
+     * @param start The index of the first character of the token (inclusive)
+     * @param end The index of the last character of the token (exclusive)
+     * @param literal The text of the token if it does not directly correspond to a region of the version string, or null
+     * @return The created version part
+     */
+    @NotNull
+    private static MavenVersionPart createPart(int prefix, @NotNull String string, int start, int end, @Nullable String literal) {
+        if (literal == null) {
+            // Tokens either consist of digits only or of no digits at all
+            if (Character.isDigit(string.charAt(start))) {
+                int value = 0;
+                for (int i = start; i < end; i++) {
+                    int digit = Character.digit(string.charAt(i), 10);
+                    if (value > (Integer.MAX_VALUE - digit) / 10) {
+                        // Too large to be represented as an integer; treat it as a qualifier just like Integer.valueOf would
+                        return new QualifierVersionPart(prefix, string.substring(start, end));
+                    }
+                    value = value * 10 + digit;
+                }
+                return new NumericVersionPart(prefix, value);
+            }
+            literal = string.substring(start, end);
+        } else if (literal == MavenVersion.ZERO_LITERAL) {
+            return new NumericVersionPart(prefix, 0);
+        }
+
+        switch (literal) {
+        case "alpha":
+        case "beta":
+        case "milestone":
+        case "rc":
+        case "cr":
+        case "snapshot":
+        case "final":
+        case "ga":
+        case "sp":
+            return new PrereleaseVersionPart(prefix, literal);
+        default:
+            return new QualifierVersionPart(prefix, literal);
+        }
+    }
+
+    /**
+     * Checks whether a token is a "null" value ("0", "final" or "ga") which may get trimmed.
+     */
+    private static boolean isNullToken(@NotNull String string, int start, int end, @Nullable String literal) {
+        if (literal != null) {
+            return literal == MavenVersion.ZERO_LITERAL;
+        }
+        int length = end - start;
+        if (length == 1) {
+            return string.charAt(start) == '0';
+        } else if (length == 2) {
+            return string.startsWith("ga", start);
+        } else if (length == 5) {
+            return string.startsWith("final", start);
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether {@link #parse(String)} returns pooled instances.
+     *
+     * @return True if interning is enabled, false otherwise.
+     * @see #setInterning(boolean)
+     */
+    public static boolean isInterning() {
+        return MavenVersion.interning;
+    }
+
+    /**
+     * Parses a version string into a {@link MavenVersion}. If interning is enabled via {@link #setInterning(boolean)},
+     * parsing the same string multiple times yields the same instance as long as that instance is still in use.
+     * Versions which are equal but were parsed from a different string, such as "1.0" and "1", are distinct
+     * instances as they have a different {@link #getOriginText() origin text}, but they share their parts.
+     *
+     * @param string The version string to parse
+     * @return The parsed version
+     */
     @NotNull
     public static MavenVersion parse(@NotNull String string) {
-        List<String> tokens = MavenVersion.purgeTokens(MavenVersion.splitTokens(string));
-        if (tokens.isEmpty()) {
-            return new MavenVersion(string, Arrays.asList());
+        MavenVersion version = MavenVersion.parse0(string);
+        if (!MavenVersion.interning) {
+            return version;
         }
-        List<MavenVersionPart> parts = new ArrayList<>();
-        int prefix = '-';
-        for (Iterator<String> it = tokens.iterator(); it.hasNext();) {
-            String token = it.next();
-            try {
-                parts.add(new NumericVersionPart(prefix, Integer.valueOf(token)));
-            } catch (NumberFormatException nfe) {
-                switch (token) {
-                case "alpha":
-                case "beta":
-                case "milestone":
-                case "rc":
-                case "cr":
-                case "snapshot":
-                case "final":
-                case "ga":
-                case "sp":
-                    parts.add(new PrereleaseVersionPart(prefix, token));
-                    break;
-                default:
-                    parts.add(new QualifierVersionPart(prefix, token));
-                    break;
+        MavenVersion pooled = MavenVersion.INTERN_POOL.intern(version.canonical, canonical -> version);
+        if (pooled == version || pooled.origin.equals(string)) {
+            return pooled;
+        }
+        return new MavenVersion(string, pooled);
+    }
+
+    @NotNull
+    private static MavenVersion parse0(@NotNull String string) {
+        // Undocumented nonsense: The version string is always lowercased
+        String versionString = string.toLowerCase(Locale.ROOT);
+        int length = versionString.length();
+
+        // "The Maven coordinate is split in tokens between dots ('.'), hyphens ('-') and transitions between digits and characters.
+        // "The separator is recorded and will have effect on the order."
+        // Tokens are recorded as regions of the version string, alongside the separator that follows them (or 0 if there is none).
+        // Empty tokens as well as shorthands (e.g. "1.2b0" corresponds to {"1", ".", "2", "-", "beta", "-", "0"})
+        // are recorded through tokenLiterals.
+        // "1.0.2c0" will produce the tokens {"1", ".", "0", ".", "2", "-", "c", "-", "0"} as a transition between chars and digits is equivalent to a hyphen
+        int[] tokenStarts = new int[length + 1];
+        int[] tokenEnds = new int[length + 1];
+        int[] tokenSeparators = new int[length + 1];
+        String[] tokenLiterals = new String[length + 1];
+        int tokenCount = 0;
+
+        int lastSeparator = -1;
+        boolean wasDigit = false;
+        for (int i = 0; i < length; i++) {
+            char c = versionString.charAt(i);
+            boolean digit = Character.isDigit(c);
+            if (c == '-' || c == '.') {
+                tokenStarts[tokenCount] = lastSeparator + 1;
+                tokenEnds[tokenCount] = i;
+                if (i == lastSeparator + 1) {
+                    tokenLiterals[tokenCount] = MavenVersion.ZERO_LITERAL;
                 }
-            }
-            if (it.hasNext()) {
-                String x = it.next();
-                if (x.length() != 1) {
-                    throw new ConfusedResolverException("Got string \"" + x + "\" from the iterator");
+                tokenSeparators[tokenCount++] = c;
+                lastSeparator = i;
+            } else if ((lastSeparator + 1) != i && wasDigit != digit) {
+                tokenStarts[tokenCount] = lastSeparator + 1;
+                tokenEnds[tokenCount] = i;
+                if (digit && i - lastSeparator == 2) {
+                    char shorthand = versionString.charAt(i - 1);
+                    if (shorthand == 'a') {
+                        tokenLiterals[tokenCount] = "alpha";
+                    } else if (shorthand == 'b') {
+                        tokenLiterals[tokenCount] = "beta";
+                    } else if (shorthand == 'm') {
+                        tokenLiterals[tokenCount] = "milestone";
+                    }
                 }
-                prefix = x.codePointAt(0);
+                tokenSeparators[tokenCount++] = '-';
+                lastSeparator = i - 1;
             }
+            wasDigit = digit;
+        }
+
+        if ((lastSeparator + 1) != length) {
+            tokenStarts[tokenCount] = lastSeparator + 1;
+            tokenEnds[tokenCount++] = length;
         }
-        return new MavenVersion(string, parts);
-    }
 
-    private static List<String> purgeTokens(List<String> tokens) {
         // "Then, starting from the end of the version, the trailing "null" values (0, "", "final", "ga") are trimmed."
         // "This process is repeated at each remaining hyphen from end to start."
-
+        // The retained tokens and separators are written from back to front into the entries array.
+        // Non-negative values are token indices, negative values are negated separator codepoints.
+        // Trimmed hyphen-delimited groups are replaced with a "0" token, represented by ZERO_ENTRY.
+        int[] entries = new int[tokenCount * 3 + 1];
+        int entryIndex = entries.length;
         boolean trimMode = true;
         boolean trimFromEnd = true;
-
-        for (int i = tokens.size() - 1; i >= 0; i--) {
-            String token = tokens.get(i);
-            if (trimMode && (token.equals("0") || token.equals("final") || token.equals("ga") || token.equals(".") || (trimFromEnd && token.equals("-")))) {
-                tokens.remove(i);
-            } else if (!token.equals("-")) {
-                trimMode = false;
-            }
-            if (token.equals("-")) {
-                if (trimMode && !trimFromEnd) {
-                    tokens.add(i + 1, "0");
+        for (int i = tokenCount - 1; i >= 0; i--) {
+            int separator = tokenSeparators[i];
+            if (separator == '-') {
+                if (!(trimMode && trimFromEnd)) {
+                    if (trimMode) {
+                        entries[--entryIndex] = MavenVersion.ZERO_ENTRY;
+                    }
+                    entries[--entryIndex] = -'-';
                 }
                 trimMode = true;
                 trimFromEnd = false;
+            } else if (separator == '.' && !trimMode) {
+                entries[--entryIndex] = -'.';
+            }
+
+            if (!trimMode || !MavenVersion.isNullToken(versionString, tokenStarts[i], tokenEnds[i], tokenLiterals[i])) {
+                entries[--entryIndex] = i;
+                trimMode = false;
             }
         }
 
         if (trimMode && !trimFromEnd) {
-            tokens.add(0, "0");
+            entries[--entryIndex] = MavenVersion.ZERO_ENTRY;
         }
 
-        return tokens;
+        List<MavenVersionPart> parts = new ArrayList<>((entries.length - entryIndex + 1) / 2);
+        int prefix = '-';
+        for (int i = entryIndex; i < entries.length; i++) {
+            int entry = entries[i];
+            if (entry == MavenVersion.ZERO_ENTRY) {
+                parts.add(MavenVersion.createPart(prefix, versionString, 0, 0, MavenVersion.ZERO_LITERAL));
+            } else if (entry < 0) {
+                prefix = -entry;
+            } else {
+                parts.add(MavenVersion.createPart(prefix, versionString, tokenStarts[entry], tokenEnds[entry], tokenLiterals[entry]));
+            }
+        }
+        return new MavenVersion(string, parts);
     }
 
-    private static List<String> splitTokens(String versionString) {
-        // Undocumented nonsense: The version string is always lowercased
-        versionString = versionString.toLowerCase(Locale.ROOT);
-        // "The Maven coordinate is split in tokens between dots ('.'), hyphens ('-') and transitions between digits and characters.
-        // "The separator is recorded and will have effect on the order."
-        // To fulfil these rules, the returned array will have semantics such as {TOKEN, SEPERATOR, TOKEN, SEPERATOR, TOKEN}
-        // "1-" will as such return {"1", "-"}
-        // "1-final" will return {"1", "-", "final"}
-        // "1.0.2c0" will return {"1", ".", "0", ".", "2", "-", "c", "-", "0"} as a transition between chars and digits are equivalent to a hypen
-        // "1.-" will return {"1", ".", "0", "-"}
-        // "." will return {"0", "."}
-        // This method does not deal with trimming "0", "final", "", "ga", however
-        // does deal with replacing shorthands.
-        // This means that "1.2b0" will return {"1", ".", "2", "-", "beta", "-", "0"}
-
-        int[] codepoints = versionString.codePoints().toArray();
-        List<String> tokens = new ArrayList<>();
-        int lastSeperator = -1;
-        boolean wasDigit = false;
+    /**
+     * Sets whether {@link #parse(String)} should deduplicate equal versions.
+     * When enabled, versions are stored in a weakly referenced pool keyed by their canonical form, which means that metadata
+     * files, version ranges and coordinates which refer to the same version string all share the same
+     * instance. This reduces the memory footprint of large version catalogues, at the cost of a pool lookup
+     * whenever a version is parsed.
+     *
+     * <p>This is a global switch: the pool is shared by the entire JVM, so that the setting applies to every
+     * {@link org.stianloader.picoresolve.MavenResolver} and every other caller of {@link #parse(String)}, regardless
+     * of which thread or library changed it. It should hence be set by the application, ideally once during startup,
+     * rather than by libraries. Disabling interning clears the pool. Interning is disabled by default.
+     *
+     * @param interning True to enable interning, false to disable it.
+     */
+    public static void setInterning(boolean interning) {
+        MavenVersion.interning = interning;
+        if (!interning) {
+            MavenVersion.INTERN_POOL.clear();
+        }
+    }
 
-        for (int i = 0; i < codepoints.length; i++) {
-            int codepoint = codepoints[i];
-            if (codepoint == '-' || codepoint == '.') {
-                int len = i - (lastSeperator + 1);
-                if (len == 0) {
-                    tokens.add("0");
-                } else {
-                    tokens.add(versionString.substring(lastSeperator + 1, i));
-                }
-                tokens.add(JavaInterop.codepointToString(codepoint));
-                lastSeperator = i;
-            } else if ((lastSeperator + 1) != i) {
-                if (!wasDigit) {
-                    if (Character.isDigit(codepoint)) {
-                        String token = versionString.substring(lastSeperator + 1, i);
-                        if (token.length() == 1) {
-                            if (token.equals("a")) {
-                                token = "alpha";
-                            } else if (token.equals("b")) {
-                                token = "beta";
-                            } else if (token.equals("m")) {
-                                token = "milestone";
-                            }
-                        }
-                        tokens.add(token);
-                        tokens.add("-");
-                        lastSeperator = i - 1;
-                    }
-                } else if (!Character.isDigit(codepoint)) {
-                    tokens.add(versionString.substring(lastSeperator + 1, i));
-                    tokens.add("-");
-                    lastSeperator = i - 1;
-                }
+    /**
+     * Compares a packed version with a version that is represented by its parts.
+     *
+     * @param packed The packed representation of the first version
+     * @param parts The parts of the second version
+     * @return The comparison result, following the contract of {@link #compareTo(MavenVersion)}
+     */
+    private static int comparePacked(long packed, MavenVersionPart @NotNull[] parts) {
+        int packedLength = (Long.SIZE - Long.numberOfTrailingZeros(packed) + 15) / 16;
+        int maxIndex = Math.min(packedLength, parts.length);
+        for (int i = 0; i < maxIndex; i++) {
+            MavenVersionPart part = parts[i];
+            if (!(part instanceof NumericVersionPart)) {
+                // Numeric version parts are always "more" than qualifier version parts
+                return 1;
+            }
+            long slot = (packed >>> (16 * (MavenVersion.PACKED_SLOTS - 1 - i))) & 0xFFFF;
+            boolean dotPrefix = (slot & MavenVersion.PACKED_DOT_PREFIX) != 0;
+            if (dotPrefix != (part.getPrefixCodepoint() == '.')) {
+                // '.' is more than '-' for numbers
+                return dotPrefix ? 1 : -1;
+            }
+            int cmp = Integer.compareUnsigned((int) (slot & MavenVersion.PACKED_MAX_VALUE), ((NumericVersionPart) part).getValue());
+            if (cmp != 0) {
+                return cmp;
             }
-            wasDigit = Character.isDigit(codepoint);
         }
-
-        if ((lastSeperator + 1) != versionString.length()) {
-            tokens.add(versionString.substring(lastSeperator + 1, versionString.length()));
+        if (packedLength == parts.length) {
+            return 0;
+        } else if (packedLength > parts.length) {
+            // The next part of the packed version is numeric
+            return 1;
         }
-
-        return tokens;
+        MavenVersionPart part = parts[packedLength];
+        if (part instanceof NumericVersionPart || part instanceof QualifierVersionPart) {
+            return -1;
+        }
+        return -((PrereleaseVersionPart) part).compareToAbsent();
     }
 
     @Override
     public int compareTo(MavenVersion o) {
-        int maxIndex = Math.min(parts.size(), o.parts.size());
+        if (this == o) {
+            return 0;
+        }
+        MavenVersionPart[] parts = this.parts;
+        MavenVersionPart[] otherParts = o.parts;
+        if (parts == null) {
+            if (otherParts == null) {
+                return Long.compareUnsigned(this.packed, o.packed);
+            }
+            return MavenVersion.comparePacked(this.packed, otherParts);
+        } else if (otherParts == null) {
+            return -MavenVersion.comparePacked(o.packed, parts);
+        }
+
+        int maxIndex = Math.min(parts.length, otherParts.length);
         for (int i = 0; i < maxIndex; i++) {
-            int cmp = parts.get(i).compareTo(o.parts.get(i));
+            int cmp = parts[i].compareTo(otherParts[i]);
             if (cmp != 0) {
                 return cmp;
             }
         }
-        if (parts.size() == o.parts.size()) {
+        if (parts.length == otherParts.length) {
             return 0;
         }
-        if (parts.size() < o.parts.size()) {
-            MavenVersionPart part = o.parts.get(parts.size());
+        if (parts.length < otherParts.length) {
+            MavenVersionPart part = otherParts[parts.length];
             if (part instanceof NumericVersionPart || part instanceof QualifierVersionPart) {
                 return -1;
             }
-            return -part.compareTo(new PrereleaseVersionPart(part.getPrefixCodepoint(), ""));
-        }
-        if (parts.size() > o.parts.size()) {
-            MavenVersionPart part = parts.get(o.parts.size());
+            return -((PrereleaseVersionPart) part).compareToAbsent();
+        } else {
+            MavenVersionPart part = parts[otherParts.length];
             if (part instanceof NumericVersionPart || part instanceof QualifierVersionPart) {
                 return 1;
             }
-            return part.compareTo(new PrereleaseVersionPart(part.getPrefixCodepoint(), ""));
+            return ((PrereleaseVersionPart) part).compareToAbsent();
         }
-        return 0;
     }
 
     @Override
@@ -195,13 +414,8 @@ public class MavenVersion implements Comparable<MavenVersion> {
         StringBuilder builder = new StringBuilder();
         builder.append(origin);
         builder.append(" [Interpreted as ");
-        StringBuilder builder2 = new StringBuilder();
-        for (MavenVersionPart part : parts) {
-            builder2.append(part.toString());
-        }
-        if (builder2.length() != 0) {
-            builder2.deleteCharAt(0);
-            builder.append(builder2);
+        if (!this.canonical.isEmpty()) {
+            builder.append(this.canonical, 1, this.canonical.length());
         }
         builder.append(']');
         return builder.toString();
@@ -213,26 +427,26 @@ public class MavenVersion implements Comparable<MavenVersion> {
 
     @Override
     public int hashCode() {
-        StringBuilder builder2 = new StringBuilder();
-        for (MavenVersionPart part : parts) {
-            builder2.append(part.toString());
-        }
-        return builder2.toString().hashCode();
+        return this.hash;
     }
 
+    /**
+     * Checks whether two versions are equal. Versions are equal if and only if their normalized parts,
+     * including the '.' or '-' separator each part is prefixed with, are equal. This is consistent with
+     * {@link #compareTo(MavenVersion)} and {@link #hashCode()}: "1.0-A1" equals "1-alpha-1" and
+     * "1.0.0" equals "1" as trailing zeros are trimmed, but "1.0.1" and "1.0-1" are different versions.
+     * The text the versions were parsed from is not taken into account.
+     *
+     * @param obj The object to compare this version with
+     * @return True if the object is a {@link MavenVersion} with the same normalized parts, false otherwise
+     */
     @Override
     public boolean equals(Object obj) {
-        if (obj instanceof MavenVersion) {
-            MavenVersion other = (MavenVersion) obj;
-            if (other.parts.size() != parts.size()) {
-                return false;
-            }
-            for (int i = 0; i < other.parts.size(); i++) {
-                if (!other.parts.get(i).stringifyContent().equals(this.parts.get(i).stringifyContent())) {
-                    return false;
-                }
-            }
+        if (this == obj) {
             return true;
+        } else if (obj instanceof MavenVersion) {
+            MavenVersion other = (MavenVersion) obj;
+            return other.hash == this.hash && other.canonical.equals(this.canonical);
         }
         return false;
     }
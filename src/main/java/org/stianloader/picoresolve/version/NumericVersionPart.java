@@ -5,8 +5,8 @@ import org.stianloader.picoresolve.internal.JavaInterop;
 
 final class NumericVersionPart implements MavenVersionPart {
 
-    private int prefixCodepoint;
-    private int value;
+    private final int prefixCodepoint;
+    private final int value;
 
     public NumericVersionPart(int prefixCodepoint, int value) {
         this.prefixCodepoint = prefixCodepoint;
@@ -42,6 +42,10 @@ final class NumericVersionPart implements MavenVersionPart {
         return this.prefixCodepoint;
     }
 
+    public int getValue() {
+        return this.value;
+    }
+
     @Override
     public String stringifyContent() {
         return Integer.toString(this.value);
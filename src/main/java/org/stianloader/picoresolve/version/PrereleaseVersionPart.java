@@ -9,12 +9,18 @@ import org.stianloader.picoresolve.internal.JavaInterop;
 final class PrereleaseVersionPart implements MavenVersionPart {
 
     private static final Map<String, Integer> QUALIFIER_VALUES = new HashMap<>();
-    private int prefixCodepoint;
-    private String qualifier;
+    /**
+     * The value of the "" qualifier, which is what a missing version part is compared as.
+     */
+    private static final int RELEASE_VALUE = 5;
+    private final int prefixCodepoint;
+    private final String qualifier;
+    private final int value;
 
     public PrereleaseVersionPart(int prefixCodepoint, String qualifier) {
         this.prefixCodepoint = prefixCodepoint;
         this.qualifier = qualifier;
+        this.value = PrereleaseVersionPart.QUALIFIER_VALUES.get(qualifier);
     }
 
     @Override
@@ -38,11 +44,21 @@ final class PrereleaseVersionPart implements MavenVersionPart {
                     throw new ConfusedResolverException("Prefix codepoint confusion");
                 }
             }
-            return QUALIFIER_VALUES.get(qualifier).compareTo(QUALIFIER_VALUES.get(other.qualifier));
+            return Integer.compare(this.value, other.value);
         }
         throw new IllegalArgumentException("Cannot compare a prerelease version part to a " + o.getClass().getTypeName());
     }
 
+    /**
+     * Compares this part with an absent version part, which is equivalent to comparing it
+     * with a {@link PrereleaseVersionPart} of the same prefix and an empty qualifier.
+     *
+     * @return The comparison result, following the contract of {@link #compareTo(MavenVersionPart)}.
+     */
+    int compareToAbsent() {
+        return Integer.compare(this.value, PrereleaseVersionPart.RELEASE_VALUE);
+    }
+
     @Override
     public int getPrefixCodepoint() {
         return this.prefixCodepoint;
@@ -65,7 +81,7 @@ final class PrereleaseVersionPart implements MavenVersionPart {
         QUALIFIER_VALUES.put("rc", 3);
         QUALIFIER_VALUES.put("cr", 3);
         QUALIFIER_VALUES.put("snapshot", 4);
-        QUALIFIER_VALUES.put("", 5);
+        QUALIFIER_VALUES.put("", RELEASE_VALUE);
         QUALIFIER_VALUES.put("final", 5);
         QUALIFIER_VALUES.put("ga", 5);
         QUALIFIER_VALUES.put("sp", 6);
@@ -5,8 +5,8 @@ import org.stianloader.picoresolve.internal.JavaInterop;
 
 final class QualifierVersionPart implements MavenVersionPart {
 
-    private int prefixCodepoint;
-    private String qualifier;
+    private final int prefixCodepoint;
+    private final String qualifier;
 
     public QualifierVersionPart(int prefix, String qualifier) {
         this.prefixCodepoint = prefix;
@@ -51,6 +51,34 @@ public class VersionRange {
             return Objects.hash(this.edgeVersion, this.type);
         }
 
+        @Override
+        @Nullable
+        public MavenVersion getLowerBound() {
+            if (this.type == EdgeType.NOT_UNDER || this.type == EdgeType.ABOVE) {
+                return this.edgeVersion;
+            }
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public MavenVersion getUpperBound() {
+            if (this.type == EdgeType.UP_TO || this.type == EdgeType.UNDER) {
+                return this.edgeVersion;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean isLowerBoundInclusive() {
+            return this.type == EdgeType.NOT_UNDER;
+        }
+
+        @Override
+        public boolean isUpperBoundInclusive() {
+            return this.type == EdgeType.UP_TO;
+        }
+
         @Override
         public String toString() {
             if (this.type == EdgeType.UP_TO) {
@@ -115,6 +143,28 @@ public class VersionRange {
             return Objects.hash(this.lowerBound, this.upperBound, this.type);
         }
 
+        @Override
+        @NotNull
+        public MavenVersion getLowerBound() {
+            return this.lowerBound;
+        }
+
+        @Override
+        @NotNull
+        public MavenVersion getUpperBound() {
+            return this.upperBound;
+        }
+
+        @Override
+        public boolean isLowerBoundInclusive() {
+            return this.type == IntervalType.CLOSED || this.type == IntervalType.UPPER_OPEN;
+        }
+
+        @Override
+        public boolean isUpperBoundInclusive() {
+            return this.type == IntervalType.CLOSED || this.type == IntervalType.LOWER_OPEN;
+        }
+
         @Override
         public String toString() {
             if (this.type == IntervalType.CLOSED) {
@@ -149,6 +199,28 @@ public class VersionRange {
             return !this.version.isNewerThan(version) && !version.isNewerThan(this.version);
         }
 
+        @Override
+        @NotNull
+        public MavenVersion getLowerBound() {
+            return this.version;
+        }
+
+        @Override
+        @NotNull
+        public MavenVersion getUpperBound() {
+            return this.version;
+        }
+
+        @Override
+        public boolean isLowerBoundInclusive() {
+            return true;
+        }
+
+        @Override
+        public boolean isUpperBoundInclusive() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return '[' + this.version.toString() + ']';
@@ -157,6 +229,28 @@ public class VersionRange {
 
     private static interface VersionSet {
         boolean contains(MavenVersion version);
+
+        /**
+         * Obtains the oldest version accepted by this set, or the version directly below it
+         * if {@link #isLowerBoundInclusive()} is false.
+         *
+         * @return The lower bound of the set, or null if the set is unbounded towards older versions.
+         */
+        @Nullable
+        MavenVersion getLowerBound();
+
+        /**
+         * Obtains the newest version accepted by this set, or the version directly above it
+         * if {@link #isUpperBoundInclusive()} is false.
+         *
+         * @return The upper bound of the set, or null if the set is unbounded towards newer versions.
+         */
+        @Nullable
+        MavenVersion getUpperBound();
+
+        boolean isLowerBoundInclusive();
+
+        boolean isUpperBoundInclusive();
     }
 
     /**
@@ -302,6 +396,70 @@ public class VersionRange {
         return new VersionRange(sets, recommendedVersions);
     }
 
+    /**
+     * Collapses the version sets into a single set. As all sets of a range need to be fulfilled at once,
+     * the sets are equivalent to a single (possibly empty) interval which is bounded by the tightest
+     * lower and upper bounds of all sets.
+     *
+     * @param sets The version sets to normalize
+     * @return A list containing at most one version set which accepts the same versions as the input sets
+     */
+    @NotNull
+    private static List<@NotNull VersionSet> normalize(@NotNull List<@NotNull VersionSet> sets) {
+        if (sets.size() <= 1) {
+            return sets;
+        }
+
+        MavenVersion lowerBound = null;
+        boolean lowerInclusive = true;
+        MavenVersion upperBound = null;
+        boolean upperInclusive = true;
+        for (VersionSet set : sets) {
+            MavenVersion bound = set.getLowerBound();
+            if (bound != null) {
+                int cmp = lowerBound == null ? 1 : bound.compareTo(lowerBound);
+                if (cmp > 0) {
+                    lowerBound = bound;
+                    lowerInclusive = set.isLowerBoundInclusive();
+                } else if (cmp == 0) {
+                    lowerInclusive &= set.isLowerBoundInclusive();
+                }
+            }
+
+            bound = set.getUpperBound();
+            if (bound != null) {
+                int cmp = upperBound == null ? -1 : bound.compareTo(upperBound);
+                if (cmp < 0) {
+                    upperBound = bound;
+                    upperInclusive = set.isUpperBoundInclusive();
+                } else if (cmp == 0) {
+                    upperInclusive &= set.isUpperBoundInclusive();
+                }
+            }
+        }
+
+        VersionSet normalized;
+        if (lowerBound == null) {
+            // Every set has at least one bound, so upperBound cannot be null here
+            normalized = new Edge(upperBound, upperInclusive ? EdgeType.UP_TO : EdgeType.UNDER);
+        } else if (upperBound == null) {
+            normalized = new Edge(lowerBound, lowerInclusive ? EdgeType.NOT_UNDER : EdgeType.ABOVE);
+        } else if (lowerInclusive && upperInclusive && lowerBound.compareTo(upperBound) == 0) {
+            normalized = new PinnedVersion(lowerBound);
+        } else {
+            IntervalType type;
+            if (lowerInclusive) {
+                type = upperInclusive ? IntervalType.CLOSED : IntervalType.UPPER_OPEN;
+            } else {
+                type = upperInclusive ? IntervalType.LOWER_OPEN : IntervalType.BOTH_OPEN;
+            }
+            normalized = new Interval(lowerBound, upperBound, type);
+        }
+        return Collections.singletonList(normalized);
+    }
+
+    private final boolean empty;
+
     @NotNull
     private final List<@NotNull MavenVersion> recommendedVersions;
 
@@ -310,7 +468,19 @@ public class VersionRange {
 
     private VersionRange(@NotNull List<@NotNull VersionSet> sets, @NotNull List<@NotNull MavenVersion> recommended) {
         this.recommendedVersions = Collections.unmodifiableList(new ArrayList<>(recommended));
-        this.versionSets = Collections.unmodifiableList(new ArrayList<>(sets));
+        this.versionSets = Collections.unmodifiableList(new ArrayList<>(VersionRange.normalize(sets)));
+
+        boolean empty = false;
+        if (this.versionSets.size() == 1) {
+            VersionSet set = this.versionSets.get(0);
+            MavenVersion lowerBound = set.getLowerBound();
+            MavenVersion upperBound = set.getUpperBound();
+            if (lowerBound != null && upperBound != null) {
+                int cmp = lowerBound.compareTo(upperBound);
+                empty = cmp > 0 || (cmp == 0 && !(set.isLowerBoundInclusive() && set.isUpperBoundInclusive()));
+            }
+        }
+        this.empty = empty;
     }
 
     public boolean containsVersion(MavenVersion version) {
@@ -360,6 +530,19 @@ public class VersionRange {
         return this.recommendedVersions;
     }
 
+    /**
+     * Checks whether the version sets of this range contradict each other, in which case no version
+     * can ever be contained in this range. This is usually the result of intersecting incompatible ranges via
+     * {@link #intersect(VersionRange)}.
+     *
+     * <p>Note: A range without any version sets (such as a plain version) is never considered to be empty.
+     *
+     * @return True if no version fulfils the constraints of this range.
+     */
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
     @NotNull
     public VersionRange intersect(@NotNull VersionRange version) {
         if (this == VersionRange.FREE_RANGE) {
@@ -417,6 +600,120 @@ public class VersionRange {
         return null;
     }
 
+    /**
+     * Variant of {@link #selectFrom(Collection, MavenVersion)} which exploits the ordering of the known versions.
+     * As all version sets of a range need to be fulfilled at once, the range accepts a single contiguous span
+     * of versions. Hence instead of testing every known version, the newest version that does not exceed the
+     * tightest upper bound of the range is looked up through a binary search, after which only that version
+     * needs to be tested against the remaining constraints.
+     *
+     * <p>The returned version is the same as the one returned by {@link #selectFrom(Collection, MavenVersion)}.
+     *
+     * @param sortedAvailable The available versions, sorted in ascending order and without duplicates.
+     * Should support efficient random access.
+     * @param releaseVersion The release version, used for {@link #RELEASE}
+     * @return The selected version, or null if no version matches the range
+     */
+    @Nullable
+    public MavenVersion selectFromSorted(@Nullable List<@NotNull MavenVersion> sortedAvailable, @Nullable MavenVersion releaseVersion) {
+        if (this == VersionRange.RELEASE) {
+            return releaseVersion;
+        }
+
+        MavenVersion candidateVersion = this.getRecommended();
+        if (candidateVersion != null || sortedAvailable == null || sortedAvailable.isEmpty()) {
+            return candidateVersion;
+        }
+
+        MavenVersion upperBound = null;
+        boolean inclusive = true;
+        for (VersionSet set : this.versionSets) {
+            MavenVersion bound = set.getUpperBound();
+            if (bound == null) {
+                continue;
+            }
+            int cmp = upperBound == null ? -1 : bound.compareTo(upperBound);
+            if (cmp < 0) {
+                upperBound = bound;
+                inclusive = set.isUpperBoundInclusive();
+            } else if (cmp == 0) {
+                inclusive &= set.isUpperBoundInclusive();
+            }
+        }
+
+        // Find the index of the newest version which does not exceed the upper bound
+        int low = 0;
+        int high = sortedAvailable.size() - 1;
+        if (upperBound != null) {
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = sortedAvailable.get(mid).compareTo(upperBound);
+                if (cmp < 0 || (cmp == 0 && inclusive)) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+        }
+
+        if (high < 0) {
+            return null;
+        }
+
+        // Versions which compare equal retain their original order - in which case #selectFrom would pick the first one
+        MavenVersion candidate = sortedAvailable.get(high);
+        while (high != 0 && sortedAvailable.get(high - 1).compareTo(candidate) == 0) {
+            candidate = sortedAvailable.get(--high);
+        }
+
+        // Older versions can only fail lower bounds more often, so there is no point in looking further
+        return this.containsVersion(candidate) ? candidate : null;
+    }
+
+    /**
+     * Obtains a string representation of this range that yields an equivalent range when passed to
+     * {@link #parse(String)}. Unlike {@link #toString()}, the original text of the individual versions
+     * is used.
+     *
+     * <p>As the version sets of a range are normalized when the range is created, the returned string
+     * does not necessarily equal the string the range was parsed from.
+     *
+     * @return A string in the version range syntax of maven
+     */
+    @NotNull
+    public String toSpecification() {
+        if (this == VersionRange.RELEASE) {
+            return "RELEASE";
+        } else if (this.versionSets.isEmpty() && this.recommendedVersions.isEmpty()) {
+            return ",";
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (VersionSet set : this.versionSets) {
+            MavenVersion lowerBound = set.getLowerBound();
+            MavenVersion upperBound = set.getUpperBound();
+            if (set instanceof PinnedVersion || (lowerBound != null && lowerBound == upperBound && set.isLowerBoundInclusive() && set.isUpperBoundInclusive())) {
+                builder.append('[').append(lowerBound.getOriginText()).append(']');
+            } else {
+                builder.append(set.isLowerBoundInclusive() ? '[' : '(');
+                if (lowerBound != null) {
+                    builder.append(lowerBound.getOriginText());
+                }
+                builder.append(',');
+                if (upperBound != null) {
+                    builder.append(upperBound.getOriginText());
+                }
+                builder.append(set.isUpperBoundInclusive() ? ']' : ')');
+            }
+            builder.append(',');
+        }
+        for (MavenVersion recommended : this.recommendedVersions) {
+            builder.append(recommended.getOriginText()).append(',');
+        }
+        builder.setLength(builder.length() - 1);
+        return builder.toString();
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
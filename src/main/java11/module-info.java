@@ -0,0 +1,12 @@
+module org.stianloader.picoresolve {
+    requires transitive java.xml;
+    requires transitive static org.jetbrains.annotations;
+    requires static org.slf4j;
+    requires java.net.http;
+
+    exports org.stianloader.picoresolve;
+    exports org.stianloader.picoresolve.exclusion;
+    exports org.stianloader.picoresolve.logging;
+    exports org.stianloader.picoresolve.repo;
+    exports org.stianloader.picoresolve.version;
+}
@@ -0,0 +1,108 @@
+package org.stianloader.picoresolve.repo;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link MavenRepository} that is accessed over HTTP or HTTPS.
+ *
+ * <p>On Java 8 this class behaves exactly like {@link URIMavenRepository}, that is every resource is fetched using
+ * a separate {@link java.net.URLConnection} which blocks a thread of the executor for the entire transfer.
+ * On Java 11 and above this class instead makes use of the {@code java.net.http.HttpClient}, sending requests
+ * asynchronously. All instances of this class share the same client, allowing requests to the same host to reuse
+ * connections. If the server supports HTTP/2, all concurrent requests to a host are multiplexed over a single
+ * connection. Resources whose URI does not make use of the http or https scheme are always fetched like
+ * {@link URIMavenRepository} would. The same applies to subclasses which
+ * {@link #HttpMavenRepository(String, URI, boolean) customize fetching}, so that their customizations are not bypassed.
+ *
+ * <p>The Java 11 implementation is shipped as part of the multi-release jar and is picked up automatically
+ * by the JVM.
+ */
+public class HttpMavenRepository extends URIMavenRepository {
+
+    private static class ClientHolder {
+        @NotNull
+        private static final HttpClient CLIENT = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private static boolean isHttp(@NotNull URI uri) {
+        String scheme = uri.getScheme();
+        return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+    }
+
+    public HttpMavenRepository(@NotNull String id, @NotNull URI base) {
+        super(id, base);
+    }
+
+    /**
+     * Creates a repository which fetches resources from the given base URI, stating whether
+     * the repository customizes how resources are fetched.
+     *
+     * @param id The id of the repository
+     * @param base The URI of the repository root
+     * @param customFetching Whether the subclass customizes how resources are fetched
+     * @see URIMavenRepository#URIMavenRepository(String, URI, boolean)
+     */
+    protected HttpMavenRepository(@NotNull String id, @NotNull URI base, boolean customFetching) {
+        super(id, base, customFetching);
+    }
+
+    @NotNull
+    private <T> CompletableFuture<T> send(@NotNull URI resource, @NotNull BodyHandler<T> successHandler, @NotNull Executor executor) {
+        HttpRequest request = HttpRequest.newBuilder(resource).GET().build();
+        // Bodies of unsuccessful responses are discarded instead of being passed to the handler
+        BodyHandler<T> handler = (info) -> {
+            if ((info.statusCode() / 100) != 2) {
+                return BodySubscribers.replacing(null);
+            }
+            return successHandler.apply(info);
+        };
+        // The response is processed by the executor so that dependent stages do not run on the threads of the client
+        return HttpMavenRepository.ClientHolder.CLIENT.sendAsync(request, handler).thenApplyAsync((HttpResponse<T> response) -> {
+            if ((response.statusCode() / 100) != 2) {
+                throw new CompletionException(new IOException("Query for " + resource + " returned with a response code of " + response.statusCode()));
+            }
+            return response.body();
+        }, executor);
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor) {
+        URI resource = this.resolve(path);
+        if (this.customFetching || !HttpMavenRepository.isHttp(resource)) {
+            return super.getResource(path, executor);
+        }
+        return this.send(resource, HttpResponse.BodyHandlers.ofByteArray(), executor).thenApply((bytes) -> {
+            return new RepositoryAttachedValue<>(this, bytes);
+        });
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<Path>> transferResource(@NotNull String path, @NotNull Path target, @NotNull Executor executor) {
+        URI resource = this.resolve(path);
+        if (this.customFetching || !HttpMavenRepository.isHttp(resource)) {
+            return super.transferResource(path, target, executor);
+        }
+        BodyHandler<Path> handler = HttpResponse.BodyHandlers.ofFile(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        return this.send(resource, handler, executor).thenApply((file) -> {
+            return new RepositoryAttachedValue<>(this, file);
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+public class BatchResolutionTest {
+
+    @TempDir
+    Path temp;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.executor = Executors.newFixedThreadPool(4);
+        new TestRepository(this.temp.resolve("remote"))
+                .pom("lib", "1.0", "")
+                .pom("lib", "2.0", "")
+                .pom("mid", "1.0", TestRepository.dependencies(TestRepository.dependency("lib", "2.0")))
+                .pom("top", "1.0", TestRepository.dependencies(TestRepository.dependency("mid", "1.0")));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private MavenResolver resolver(String local) {
+        return new MavenResolver(this.temp.resolve(local)).addRepository(new URIMavenRepository("test", this.temp.resolve("remote").toUri()));
+    }
+
+    @Test
+    public void testNearestWinsPerRoot() throws Exception {
+        // lib is a direct dependency of the first root set, but only a transitive dependency of the others
+        List<DependencyLayer> roots = Arrays.asList(TestRepository.root("lib:1.0", "mid:1.0"), TestRepository.root("mid:1.0"), TestRepository.root("top:1.0"));
+        this.resolver("local-batch").resolveAllChildren(roots, this.executor).get(1, TimeUnit.MINUTES);
+
+        assertEquals("com.example:lib:1.0 -> [], com.example:mid:1.0 -> [com.example:lib:1.0]", TestRepository.describe(roots.get(0)).get(0));
+        assertEquals(Arrays.asList("com.example:mid:1.0 -> [com.example:lib:2.0]", "com.example:lib:2.0 -> []"), TestRepository.describe(roots.get(1)).subList(0, 2));
+        assertEquals("com.example:lib:2.0 -> []", TestRepository.describe(roots.get(2)).get(2));
+
+        String[][] dependencies = {{"lib:1.0", "mid:1.0"}, {"mid:1.0"}, {"top:1.0"}};
+        for (int i = 0; i < dependencies.length; i++) {
+            DependencyLayer single = TestRepository.root(dependencies[i]);
+            this.resolver("local-single-" + i).resolveAllChildren(single, this.executor).get(1, TimeUnit.MINUTES);
+            assertEquals(TestRepository.describe(single), TestRepository.describe(roots.get(i)));
+        }
+    }
+}
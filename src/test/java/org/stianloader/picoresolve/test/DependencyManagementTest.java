@@ -0,0 +1,90 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+public class DependencyManagementTest {
+
+    @NotNull
+    private static String parent(@NotNull String artifact) {
+        return "    <parent>\n"
+                + "        <groupId>" + TestRepository.GROUP + "</groupId>\n"
+                + "        <artifactId>" + artifact + "</artifactId>\n"
+                + "        <version>1.0</version>\n"
+                + "    </parent>\n";
+    }
+
+    @NotNull
+    private static String bomImport(@NotNull String artifact) {
+        return TestRepository.dependency(artifact, "1.0", "            <type>pom</type>\n            <scope>import</scope>\n");
+    }
+
+    @TempDir
+    Path temp;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.executor = Executors.newFixedThreadPool(4);
+        TestRepository repository = new TestRepository(this.temp.resolve("remote"));
+        for (String artifact : new String[] {"lib", "util", "extra"}) {
+            repository.pom(artifact, "1.0", "").pom(artifact, "2.0", "").pom(artifact, "3.0", "");
+        }
+        repository.pom("grandparent", "1.0", "    <packaging>pom</packaging>\n"
+                        + TestRepository.dependencyManagement(TestRepository.dependency("lib", "1.0"), TestRepository.dependency("util", "1.0"), TestRepository.dependency("extra", "1.0")))
+                .pom("parent", "1.0", DependencyManagementTest.parent("grandparent") + "    <packaging>pom</packaging>\n"
+                        + TestRepository.dependencyManagement(TestRepository.dependency("util", "2.0")))
+                .pom("bom", "1.0", "    <packaging>pom</packaging>\n"
+                        + TestRepository.dependencyManagement(TestRepository.dependency("lib", "3.0"), TestRepository.dependency("util", "3.0")))
+                .pom("child", "1.0", DependencyManagementTest.parent("parent")
+                        + TestRepository.dependencyManagement(TestRepository.dependency("lib", "2.0"))
+                        + TestRepository.dependencies(TestRepository.dependency("lib", null), TestRepository.dependency("util", null), TestRepository.dependency("extra", null)))
+                .pom("orphan", "1.0", TestRepository.dependencyManagement(DependencyManagementTest.bomImport("bom"))
+                        + TestRepository.dependencies(TestRepository.dependency("lib", null), TestRepository.dependency("util", null)));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @NotNull
+    private List<String> resolve(@NotNull String dependency) throws Exception {
+        MavenResolver resolver = new MavenResolver(this.temp.resolve("local"))
+                .addRepository(new URIMavenRepository("test", this.temp.resolve("remote").toUri()));
+        DependencyLayer root = TestRepository.root(dependency);
+        resolver.resolveAllChildren(root, this.executor).get(1, TimeUnit.MINUTES);
+        return TestRepository.describe(root);
+    }
+
+    @Test
+    public void testChildTakesPrecedence() throws Exception {
+        // The child manages lib, its parent util and the grandparent all three of them.
+        // The nearest declaration wins, while the declarations of the parents still apply to the remaining artifacts.
+        assertEquals(Arrays.asList("com.example:child:1.0 -> [com.example:lib:2.0, com.example:util:2.0, com.example:extra:1.0]",
+                "com.example:extra:1.0 -> [], com.example:lib:2.0 -> [], com.example:util:2.0 -> []"), this.resolve("child:1.0").subList(0, 2));
+    }
+
+    @Test
+    public void testImportWithoutParent() throws Exception {
+        assertEquals(Arrays.asList("com.example:orphan:1.0 -> [com.example:lib:3.0, com.example:util:3.0]",
+                "com.example:lib:3.0 -> [], com.example:util:3.0 -> []"), this.resolve("orphan:1.0").subList(0, 2));
+    }
+}
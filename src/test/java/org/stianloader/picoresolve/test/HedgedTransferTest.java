@@ -0,0 +1,279 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.internal.JavaInterop;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.MavenRepository;
+import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
+
+public class HedgedTransferTest {
+
+    private static final String PATH = "com/example/lib/1.0/lib-1.0.jar";
+
+    /**
+     * A repository which delivers a fixed content (or fails) after a fixed delay.
+     */
+    private static class StubRepository implements MavenRepository {
+        @NotNull
+        private final String id;
+        private final long latency;
+        private final String content;
+        @NotNull
+        private final ScheduledExecutorService scheduler;
+        @NotNull
+        final AtomicInteger requests = new AtomicInteger();
+        @NotNull
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        StubRepository(@NotNull String id, long latency, String content, @NotNull ScheduledExecutorService scheduler) {
+            this.id = id;
+            this.latency = latency;
+            this.content = content;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        @NotNull
+        public CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor) {
+            this.requests.incrementAndGet();
+            if (this.content == null) {
+                return JavaInterop.failedFuture(new IOException("Not found: " + path));
+            }
+            return CompletableFuture.completedFuture(new RepositoryAttachedValue<>(this, this.content.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        @NotNull
+        public CompletableFuture<RepositoryAttachedValue<Path>> transferResource(@NotNull String path, @NotNull Path target, @NotNull Executor executor) {
+            this.requests.incrementAndGet();
+            CompletableFuture<RepositoryAttachedValue<Path>> future = new CompletableFuture<>();
+            this.scheduler.schedule(() -> {
+                if (this.content == null) {
+                    future.completeExceptionally(new IOException("Not found: " + path));
+                } else {
+                    try {
+                        Files.write(target, this.content.getBytes(StandardCharsets.UTF_8));
+                        future.complete(new RepositoryAttachedValue<>(this, target));
+                    } catch (IOException e) {
+                        future.completeExceptionally(new UncheckedIOException(e));
+                    }
+                }
+                this.finished.complete(null);
+            }, this.latency, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+        @Override
+        @NotNull
+        public String getRepositoryId() {
+            return this.id;
+        }
+
+        @Override
+        @NotNull
+        public String getPlaintextURL() {
+            return "stub://" + this.id + "/";
+        }
+
+        @Override
+        public long getUpdateIntervall() {
+            return 0;
+        }
+    }
+
+    @TempDir
+    Path mavenLocal;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void setup() {
+        this.executor = Executors.newFixedThreadPool(4);
+        this.scheduler = Executors.newScheduledThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.scheduler.shutdownNow();
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private StubRepository repository(@NotNull String id, long latency, String content) {
+        return new StubRepository(id, latency, content, this.scheduler);
+    }
+
+    @NotNull
+    private RepositoryAttachedValue<Path> resolve(long hedgingDelay, @NotNull StubRepository... repositories) {
+        MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(this.mavenLocal).setHedgingDelay(hedgingDelay);
+        for (StubRepository repository : repositories) {
+            negotiator.addRepository(repository);
+        }
+        return negotiator.resolveStandard(HedgedTransferTest.PATH, this.executor).join();
+    }
+
+    private void assertContent(@NotNull String expected, @NotNull RepositoryAttachedValue<Path> rav) throws IOException {
+        assertEquals(this.mavenLocal.resolve(HedgedTransferTest.PATH), rav.getValue());
+        assertEquals(expected, new String(Files.readAllBytes(rav.getValue()), StandardCharsets.UTF_8));
+    }
+
+    private void assertNoPartFiles() throws IOException, InterruptedException {
+        Path directory = this.mavenLocal.resolve(HedgedTransferTest.PATH).getParent();
+        long deadline = System.currentTimeMillis() + 5_000L;
+        long partFiles;
+        do {
+            // Part files of losing downloads are deleted once the download completes
+            Thread.sleep(10L);
+            try (Stream<Path> files = Files.list(directory)) {
+                partFiles = files.filter((file) -> file.getFileName().toString().endsWith(".part")).count();
+            }
+        } while (partFiles != 0 && System.currentTimeMillis() < deadline);
+        assertEquals(0, partFiles);
+    }
+
+    @Test
+    public void testFirstSuccessWins() throws IOException, InterruptedException {
+        StubRepository slow = this.repository("slow", 500, "slow");
+        StubRepository fast = this.repository("fast", 10, "fast");
+        RepositoryAttachedValue<Path> rav = this.resolve(0, slow, fast);
+
+        assertSame(fast, rav.getRepository());
+        this.assertContent("fast", rav);
+
+        // The losing download completes later on and its file must not linger
+        slow.finished.join();
+        this.assertNoPartFiles();
+        this.assertContent("fast", rav);
+    }
+
+    @Test
+    public void testZeroDelayFansOut() throws IOException {
+        StubRepository first = this.repository("first", 50, "first");
+        StubRepository second = this.repository("second", 500, "second");
+        RepositoryAttachedValue<Path> rav = this.resolve(0, first, second);
+
+        assertSame(first, rav.getRepository());
+        this.assertContent("first", rav);
+        assertEquals(1, first.requests.get());
+        assertEquals(1, second.requests.get());
+    }
+
+    @Test
+    public void testHedgeAfterDelay() throws IOException, InterruptedException {
+        StubRepository slow = this.repository("slow", 2000, "slow");
+        StubRepository fast = this.repository("fast", 10, "fast");
+        long start = System.nanoTime();
+        RepositoryAttachedValue<Path> rav = this.resolve(100, slow, fast);
+
+        assertSame(fast, rav.getRepository());
+        this.assertContent("fast", rav);
+        assertEquals(1, slow.requests.get());
+        assertEquals(1, fast.requests.get());
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= 100 && elapsed < 2000, "Unexpected duration " + elapsed + " ms");
+
+        slow.finished.join();
+        this.assertNoPartFiles();
+    }
+
+    @Test
+    public void testNoHedgeWithinDelay() throws IOException {
+        StubRepository first = this.repository("first", 10, "first");
+        StubRepository second = this.repository("second", 10, "second");
+        RepositoryAttachedValue<Path> rav = this.resolve(2000, first, second);
+
+        assertSame(first, rav.getRepository());
+        this.assertContent("first", rav);
+        assertEquals(0, second.requests.get());
+    }
+
+    @Test
+    public void testFailover() throws IOException, InterruptedException {
+        StubRepository missing = this.repository("missing", 10, null);
+        StubRepository present = this.repository("present", 10, "present");
+        RepositoryAttachedValue<Path> rav = this.resolve(2000, missing, present);
+
+        assertSame(present, rav.getRepository());
+        this.assertContent("present", rav);
+        assertEquals(1, missing.requests.get());
+        this.assertNoPartFiles();
+    }
+
+    @Test
+    public void testNegativeDelayOnlyFailsOver() throws IOException {
+        StubRepository slow = this.repository("slow", 300, "slow");
+        StubRepository fast = this.repository("fast", 10, "fast");
+        RepositoryAttachedValue<Path> rav = this.resolve(-1, slow, fast);
+
+        assertSame(slow, rav.getRepository());
+        this.assertContent("slow", rav);
+        assertEquals(0, fast.requests.get());
+
+        StubRepository missing = this.repository("missing", 10, null);
+        fast = this.repository("fast", 10, "fast");
+        Files.delete(this.mavenLocal.resolve(HedgedTransferTest.PATH));
+        rav = this.resolve(-1, missing, fast);
+        assertSame(fast, rav.getRepository());
+        this.assertContent("fast", rav);
+    }
+
+    @Test
+    public void testAllFail() throws IOException, InterruptedException {
+        StubRepository first = this.repository("first", 10, null);
+        StubRepository second = this.repository("second", 10, null);
+        assertThrows(CompletionException.class, () -> this.resolve(0, first, second));
+        assertEquals(1, first.requests.get());
+        assertEquals(1, second.requests.get());
+        this.assertNoPartFiles();
+    }
+
+    @Test
+    public void testMoveHook() throws IOException, InterruptedException {
+        List<Path> moved = Collections.synchronizedList(new ArrayList<>());
+        MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(this.mavenLocal) {
+            @Override
+            protected void move(@NotNull Path part, @NotNull Path to) {
+                assertTrue(part.getFileName().toString().endsWith(".part"), part.toString());
+                moved.add(to);
+                super.move(part, to);
+            }
+        };
+        negotiator.addRepository(this.repository("remote", 10, "content"));
+
+        // Both artifacts and metadata files are moved into place through the same hook
+        this.assertContent("content", negotiator.resolveStandard(HedgedTransferTest.PATH, this.executor).join());
+        String metadata = "com/example/lib/maven-metadata.xml";
+        assertEquals(1, negotiator.resolveMavenMeta(metadata, this.executor).join().size());
+        assertEquals(Arrays.asList(this.mavenLocal.resolve(HedgedTransferTest.PATH), this.mavenLocal.resolve("com/example/lib/maven-metadata-remote.xml")), moved);
+        this.assertNoPartFiles();
+    }
+}
@@ -0,0 +1,104 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+public class IncrementalResolutionTest {
+
+    @TempDir
+    Path temp;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.executor = Executors.newFixedThreadPool(4);
+        new TestRepository(this.temp.resolve("remote"))
+                .pom("lib", "1.0", "")
+                .pom("lib", "2.0", "")
+                .pom("util", "1.0", "")
+                .pom("util", "2.0", "")
+                .pom("core", "1.0", TestRepository.dependencies(TestRepository.dependency("util", "1.0"), TestRepository.dependency("lib", "[1.0,)")))
+                .pom("a", "1.0", TestRepository.dependencies(TestRepository.dependency("core", "1.0", TestRepository.exclusion("util"))))
+                .pom("a", "2.0", TestRepository.dependencies(TestRepository.dependency("core", "1.0")))
+                .pom("b", "1.0", TestRepository.dependencies(TestRepository.dependency("core", "1.0")))
+                .pom("c", "1.0", TestRepository.dependencies(TestRepository.dependency("util", "2.0"), TestRepository.dependency("lib", "1.0")));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @NotNull
+    private MavenResolver resolver(@NotNull String local) {
+        return new MavenResolver(this.temp.resolve(local)).addRepository(new URIMavenRepository("test", this.temp.resolve("remote").toUri()));
+    }
+
+    @NotNull
+    private List<String> assertEquivalent(@NotNull String[] previous, @NotNull String[] current) throws Exception {
+        MavenResolver resolver = this.resolver("local-incremental");
+        DependencyLayer previousRoot = TestRepository.root(previous);
+        resolver.resolveAllChildren(previousRoot, this.executor).get(1, TimeUnit.MINUTES);
+        List<String> previousDescription = TestRepository.describe(previousRoot);
+
+        DependencyLayer incremental = TestRepository.root(current);
+        resolver.resolveAllChildrenIncrementally(incremental, previousRoot, this.executor).get(1, TimeUnit.MINUTES);
+        DependencyLayer scratch = TestRepository.root(current);
+        this.resolver("local-scratch").resolveAllChildren(scratch, this.executor).get(1, TimeUnit.MINUTES);
+
+        List<String> expected = TestRepository.describe(scratch);
+        assertEquals(expected, TestRepository.describe(incremental));
+        // The previous graph must not be altered
+        assertEquals(previousDescription, TestRepository.describe(previousRoot));
+        return expected;
+    }
+
+    @Test
+    public void testAddedRoot() throws Exception {
+        List<String> layers = this.assertEquivalent(new String[] {"a:1.0"}, new String[] {"a:1.0", "b:1.0"});
+        assertTrue(layers.get(1).contains("com.example:core:1.0 -> [com.example:util:1.0, com.example:lib:2.0]"), layers.get(1));
+    }
+
+    @Test
+    public void testChangedExclusions() throws Exception {
+        // The negotiation of core has the same input as before, but its previous element can not be copied
+        // as the util edge was filtered by the exclusion that no longer applies
+        List<String> layers = this.assertEquivalent(new String[] {"a:1.0"}, new String[] {"a:2.0"});
+        assertEquals("com.example:core:1.0 -> [com.example:util:1.0, com.example:lib:2.0]", layers.get(1));
+    }
+
+    @Test
+    public void testRemovedRoot() throws Exception {
+        List<String> layers = this.assertEquivalent(new String[] {"a:1.0", "b:1.0"}, new String[] {"a:1.0"});
+        assertTrue(layers.get(1).contains("com.example:core:1.0 -> [com.example:lib:2.0]"), layers.get(1));
+    }
+
+    @Test
+    public void testChangedNegotiation() throws Exception {
+        // c pins lib and util at a lower depth than core, changing the versions selected for both
+        List<String> layers = this.assertEquivalent(new String[] {"b:1.0"}, new String[] {"b:1.0", "c:1.0"});
+        assertEquals("com.example:core:1.0 -> [com.example:util:2.0, com.example:lib:1.0], com.example:lib:1.0 -> [], com.example:util:2.0 -> []", layers.get(1));
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        this.assertEquivalent(new String[] {"a:1.0", "c:1.0"}, new String[] {"a:1.0", "c:1.0"});
+    }
+}
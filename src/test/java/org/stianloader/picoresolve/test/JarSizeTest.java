@@ -0,0 +1,69 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Guards the size limit of the compiled jar as stated in the README. The jar itself is only built after
+ * the tests ran, so the contents of the jar are compressed the same way the jar plugin would compress them.
+ */
+public class JarSizeTest {
+
+    private static final long MAX_JAR_SIZE = 150L * 1000L;
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.count += len;
+        }
+
+        @Override
+        public void write(int b) {
+            this.count++;
+        }
+    }
+
+    @Test
+    public void testJarSize() throws IOException {
+        Path classes = Paths.get("target", "classes");
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(classes)) {
+            files = stream.filter((file) -> !file.equals(classes)).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        CountingOutputStream counter = new CountingOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(counter)) {
+            for (Path file : files) {
+                String name = classes.relativize(file).toString().replace('\\', '/');
+                if (Files.isDirectory(file)) {
+                    zip.putNextEntry(new ZipEntry(name + '/'));
+                } else {
+                    zip.putNextEntry(new ZipEntry(name));
+                    zip.write(Files.readAllBytes(file));
+                }
+                zip.closeEntry();
+            }
+            // The jar plugin further embeds the POM alongside the manifest and an index, which are comparatively small
+            zip.putNextEntry(new ZipEntry("META-INF/maven/org.stianloader/picoresolve/pom.xml"));
+            zip.write(Files.readAllBytes(Paths.get("pom.xml")));
+            zip.closeEntry();
+        }
+
+        assertTrue(counter.count <= JarSizeTest.MAX_JAR_SIZE, "The compiled jar is " + counter.count + " bytes large, exceeding the limit of " + JarSizeTest.MAX_JAR_SIZE + " bytes");
+    }
+}
@@ -0,0 +1,157 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.internal.LRUCache;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+public class LRUCacheTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testAccessOrder() {
+        LRUCache<String, String> cache = new LRUCache<>(2);
+        assertNull(cache.putIfAbsent("a", "1"));
+        assertNull(cache.putIfAbsent("b", "2"));
+        assertEquals("1", cache.get("a"));
+        // b is now the least recently used entry
+        assertNull(cache.putIfAbsent("c", "3"));
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+
+        // Hitting an existing entry through putIfAbsent counts as an access, too
+        assertEquals("1", cache.putIfAbsent("a", "other"));
+        assertNull(cache.putIfAbsent("d", "4"));
+        assertNull(cache.get("c"));
+        assertEquals("1", cache.get("a"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testShrink() {
+        LRUCache<String, String> cache = new LRUCache<>(4);
+        cache.putIfAbsent("a", "1");
+        cache.putIfAbsent("b", "2");
+        cache.putIfAbsent("c", "3");
+        cache.putIfAbsent("d", "4");
+        cache.get("a");
+
+        cache.setCapacity(2);
+        assertEquals(2, cache.getCapacity());
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertNull(cache.get("c"));
+        assertEquals("4", cache.get("d"));
+        assertEquals("1", cache.get("a"));
+
+        // Growing the cache does not evict anything
+        cache.setCapacity(3);
+        cache.putIfAbsent("e", "5");
+        assertEquals(3, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> cache.setCapacity(-1));
+        assertThrows(IllegalArgumentException.class, () -> new LRUCache<>(-1));
+    }
+
+    @Test
+    public void testZeroCapacity() {
+        LRUCache<String, String> cache = new LRUCache<>(0);
+        assertNull(cache.putIfAbsent("a", "1"));
+        assertNull(cache.putIfAbsent("a", "2"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+
+        LRUCache<String, String> disabled = new LRUCache<>(2);
+        disabled.putIfAbsent("a", "1");
+        disabled.setCapacity(0);
+        assertEquals(0, disabled.size());
+        assertNull(disabled.putIfAbsent("b", "2"));
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    public void testRemove() {
+        LRUCache<String, String> cache = new LRUCache<>(2);
+        cache.putIfAbsent("a", "1");
+        assertFalse(cache.remove("a", "2"));
+        assertEquals("1", cache.get("a"));
+        assertTrue(cache.remove("a", "1"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testFailedPomEvicted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            TestRepository repository = new TestRepository(this.temp.resolve("remote"))
+                    .pom("lib", "1.0", "")
+                    .pom("app", "1.0", "    <parent><groupId>com.example</groupId><artifactId>parent</artifactId><version>1.0</version></parent>\n"
+                            + TestRepository.dependencies(TestRepository.dependency("lib", "1.0")));
+            MavenResolver resolver = new MavenResolver(this.temp.resolve("local"))
+                    .addRepository(new URIMavenRepository("test", this.temp.resolve("remote").toUri()));
+
+            // The parent POM is missing, so the POM of app can not be assembled
+            DependencyLayer root = TestRepository.root("app:1.0");
+            assertThrows(ExecutionException.class, () -> resolver.resolveAllChildren(root, executor).get(1, TimeUnit.MINUTES));
+
+            // The failure must not be cached, so that publishing the parent POM makes the resolution succeed
+            repository.pom("parent", "1.0", "    <packaging>pom</packaging>\n");
+            DependencyLayer retry = TestRepository.root("app:1.0");
+            resolver.resolveAllChildren(retry, executor).get(1, TimeUnit.MINUTES);
+            assertEquals("com.example:app:1.0 -> [com.example:lib:1.0]", TestRepository.describe(retry).get(0));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testNodeCache() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Files installed to the local repository are not tracked by the resolver, so the nodes are only reassembled if not cached
+            TestRepository local = new TestRepository(this.temp.resolve("local"))
+                    .pom("lib", "1.0", "")
+                    .pom("lib", "2.0", "")
+                    .pom("app", "1.0", TestRepository.dependencies(TestRepository.dependency("lib", "1.0")))
+                    .pom("app", "1.0-SNAPSHOT", TestRepository.dependencies(TestRepository.dependency("lib", "1.0")));
+            MavenResolver resolver = new MavenResolver(this.temp.resolve("local"));
+            assertEquals("com.example:app:1.0 -> [com.example:lib:1.0]", LRUCacheTest.resolve(resolver, executor, "app:1.0"));
+            assertEquals("com.example:app:1.0-SNAPSHOT -> [com.example:lib:1.0]", LRUCacheTest.resolve(resolver, executor, "app:1.0-SNAPSHOT"));
+
+            local.pom("app", "1.0", TestRepository.dependencies(TestRepository.dependency("lib", "2.0")))
+                    .pom("app", "1.0-SNAPSHOT", TestRepository.dependencies(TestRepository.dependency("lib", "2.0")));
+            assertEquals("com.example:app:1.0 -> [com.example:lib:1.0]", LRUCacheTest.resolve(resolver, executor, "app:1.0"));
+            // SNAPSHOT versions may be republished at any time and thus are not cached
+            assertEquals("com.example:app:1.0-SNAPSHOT -> [com.example:lib:2.0]", LRUCacheTest.resolve(resolver, executor, "app:1.0-SNAPSHOT"));
+
+            resolver.setDependencyCacheCapacity(0).setPomCacheCapacity(0);
+            assertEquals("com.example:app:1.0 -> [com.example:lib:2.0]", LRUCacheTest.resolve(resolver, executor, "app:1.0"));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String resolve(MavenResolver resolver, ExecutorService executor, String dependency) throws Exception {
+        DependencyLayer root = TestRepository.root(dependency);
+        resolver.resolveAllChildren(root, executor).get(1, TimeUnit.MINUTES);
+        return TestRepository.describe(root).get(0);
+    }
+}
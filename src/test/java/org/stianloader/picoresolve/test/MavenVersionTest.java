@@ -1,6 +1,10 @@
 package org.stianloader.picoresolve.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.jetbrains.annotations.NotNull;
@@ -149,4 +153,58 @@ public class MavenVersionTest {
         MavenVersion.parse("0-foo");
         assertTrue(isNewer("0.1-max-version", "0-min-version"));
     }
+
+    @Test
+    public void testEquality() {
+        assertEquals(MavenVersion.parse("1.0-A1"), MavenVersion.parse("1-alpha-1"));
+        assertEquals(MavenVersion.parse("1.0-A1").hashCode(), MavenVersion.parse("1-alpha-1").hashCode());
+        assertEquals(MavenVersion.parse("1.0.0"), MavenVersion.parse("1"));
+        assertNotEquals(MavenVersion.parse("1.1"), MavenVersion.parse("1-1"));
+        assertNotEquals(MavenVersion.parse("1.0-rc"), MavenVersion.parse("1.0-cr"));
+
+        // Separators are part of the version and are honoured consistently with compareTo
+        assertNotEquals(MavenVersion.parse("1.0.1"), MavenVersion.parse("1.0-1"));
+        assertNotEquals(0, MavenVersion.parse("1.0.1").compareTo(MavenVersion.parse("1.0-1")));
+        assertNotEquals(MavenVersion.parse("1.foo"), MavenVersion.parse("1-foo"));
+        assertNotEquals(0, MavenVersion.parse("1.foo").compareTo(MavenVersion.parse("1-foo")));
+        assertEquals(MavenVersion.parse("1.0-1"), MavenVersion.parse("1-1"));
+        assertEquals(0, MavenVersion.parse("1.0-1").compareTo(MavenVersion.parse("1-1")));
+        assertEquals(MavenVersion.parse("1.0-1").hashCode(), MavenVersion.parse("1-1").hashCode());
+    }
+
+    @Test
+    public void testInterning() {
+        MavenVersion.setInterning(true);
+        try {
+            assertSame(MavenVersion.parse("2.17.2"), MavenVersion.parse(new String("2.17.2")));
+            assertNotSame(MavenVersion.parse("1.0"), MavenVersion.parse("1"));
+            assertEquals("1.0", MavenVersion.parse("1.0").getOriginText());
+
+            // The pool is keyed by the canonical form, but the origin text of a version is always retained
+            MavenVersion alpha = MavenVersion.parse("1.0-A1");
+            MavenVersion equal = MavenVersion.parse("1-alpha-1");
+            assertEquals(alpha, equal);
+            assertEquals("1-alpha-1", equal.getOriginText());
+            assertSame(alpha, MavenVersion.parse("1.0-A1"));
+            assertEquals("1.0-A1", MavenVersion.parse("1.0-A1").getOriginText());
+        } finally {
+            MavenVersion.setInterning(false);
+        }
+        assertNotSame(MavenVersion.parse("2.17.2"), MavenVersion.parse("2.17.2"));
+    }
+
+    @Test
+    public void testCompactNumericVersions() {
+        assertTrue(isNewer("16384", "16383"));
+        assertTrue(isNewer("1.16384", "1.16383"));
+        assertTrue(isNewer("1.2.3.4.5", "1.2.3.4"));
+        assertTrue(isNewer("1.2.3.5", "1.2.3.4.5"));
+        assertTrue(isNewer("1.1", "1-1"));
+        assertTrue(isNewer("1-1", "1-sp"));
+        assertTrue(isNewer("1", "1-snapshot"));
+        assertTrue(isNewer("1-sp", "1"));
+        assertTrue(isNewer("1.0.1", "1.0.0.70000"));
+        assertFalse(isNewer("1.0.0", "1"));
+        assertFalse(isNewer("1", "1.0.0"));
+    }
 }
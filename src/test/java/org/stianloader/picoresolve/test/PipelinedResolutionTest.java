@@ -0,0 +1,112 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+public class PipelinedResolutionTest {
+
+    @TempDir
+    Path temp;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.executor = Executors.newFixedThreadPool(4);
+        new TestRepository(this.temp.resolve("remote"))
+                .pom("lib", "1.0", "")
+                .pom("lib", "1.5", "")
+                .pom("lib", "2.0", "")
+                .pom("util", "1.0", TestRepository.dependencies(TestRepository.dependency("lib", "[1.0,)")))
+                .pom("util", "2.0", TestRepository.dependencies(TestRepository.dependency("lib", "2.0")))
+                .pom("core", "1.0", TestRepository.dependencies(TestRepository.dependency("util", "[1.0,2.0)"), TestRepository.dependency("lib", "[1.0,1.5]")))
+                .pom("core", "2.0", TestRepository.dependencies(TestRepository.dependency("util", "2.0")))
+                .pom("a", "1.0", TestRepository.dependencies(TestRepository.dependency("core", "[1.0,2.0)", TestRepository.exclusion("lib"))))
+                .pom("b", "1.0", TestRepository.dependencies(TestRepository.dependency("core", "1.0"), TestRepository.dependency("util", "2.0")))
+                .pom("c", "1.0", TestRepository.dependencies(TestRepository.dependency("a", "1.0"), TestRepository.dependency("core", "2.0")));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @NotNull
+    private List<String> resolve(boolean pipelined, @NotNull String... dependencies) throws Exception {
+        MavenResolver resolver = new MavenResolver(this.temp.resolve("local-" + pipelined))
+                .addRepository(new URIMavenRepository("test", this.temp.resolve("remote").toUri()));
+        resolver.pipelinedResolution = pipelined;
+        DependencyLayer root = TestRepository.root(dependencies);
+        resolver.resolveAllChildren(root, this.executor).get(1, TimeUnit.MINUTES);
+        return TestRepository.describe(root);
+    }
+
+    @Test
+    public void testSameLayers() throws Exception {
+        for (String[] dependencies : Arrays.asList(new String[] {"a:1.0"}, new String[] {"b:1.0"}, new String[] {"c:1.0"}, new String[] {"a:1.0", "b:1.0", "c:1.0"})) {
+            List<String> expected = this.resolve(false, dependencies);
+            assertEquals(expected, this.resolve(true, dependencies), Arrays.toString(dependencies));
+        }
+    }
+
+    @Test
+    public void testSpeculationDoesNotAlterNegotiation() throws Exception {
+        // Speculation fetches lib 2.0 as requested by util 2.0, while the negotiation of the third layer
+        // has to select lib 1.5 due to the range requested by core 1.0
+        List<String> layers = this.resolve(true, "b:1.0");
+        assertEquals(Arrays.asList("com.example:b:1.0 -> [com.example:core:1.0, com.example:util:2.0]",
+                "com.example:core:1.0 -> [com.example:util:2.0, com.example:lib:1.5], com.example:util:2.0 -> [com.example:lib:1.5]",
+                "com.example:lib:1.5 -> []"), layers.subList(0, 3));
+    }
+
+    @Test
+    public void testDepthBound() throws Exception {
+        // Only speculation fetches s 2.0 (as requested by p), as the negotiation selects s 1.0 due to the range requested by q
+        new TestRepository(this.temp.resolve("remote"))
+                .pom("t2", "1.0", "")
+                .pom("t1", "1.0", TestRepository.dependencies(TestRepository.dependency("t2", "1.0")))
+                .pom("s", "1.0", "")
+                .pom("s", "2.0", TestRepository.dependencies(TestRepository.dependency("t1", "1.0")))
+                .pom("p", "1.0", TestRepository.dependencies(TestRepository.dependency("s", "[1.0,)")))
+                .pom("q", "1.0", TestRepository.dependencies(TestRepository.dependency("s", "[1.0,1.5]")));
+        // Delaying q gives the speculation triggered by p enough time to run to its bound before the resolution completes
+        MavenResolver resolver = new MavenResolver(this.temp.resolve("local"))
+                .addRepository(new URIMavenRepository("test", this.temp.resolve("remote").toUri()) {
+                    @Override
+                    protected InputStream openResource(@NotNull String path) throws Exception {
+                        if (path.contains("/q/")) {
+                            Thread.sleep(1000L);
+                        }
+                        return super.openResource(path);
+                    }
+                });
+        resolver.pipelinedResolutionDepth = 2;
+        DependencyLayer root = TestRepository.root("p:1.0", "q:1.0");
+        resolver.resolveAllChildren(root, this.executor).get(1, TimeUnit.MINUTES);
+        assertEquals(Arrays.asList("com.example:p:1.0 -> [com.example:s:1.0], com.example:q:1.0 -> [com.example:s:1.0]", "com.example:s:1.0 -> []"), TestRepository.describe(root).subList(0, 2));
+
+        // Resolving p fetches s 2.0 and t1, but not t2, as it lies three layers ahead of p
+        assertTrue(Files.exists(this.temp.resolve("local/com/example/t1/1.0/t1-1.0.pom")));
+        assertFalse(Files.exists(this.temp.resolve("local/com/example/t2/1.0/t2-1.0.pom")));
+    }
+}
@@ -0,0 +1,179 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.internal.ProjectObjectModel;
+import org.stianloader.picoresolve.internal.ProjectObjectModel.DependencyDeclaration;
+
+public class ProjectObjectModelTest {
+
+    private static final String POM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n"
+            + "    <modelVersion>4.0.0</modelVersion>\n"
+            + "    <parent>\n"
+            + "        <groupId>com.example</groupId>\n"
+            + "        <artifactId>parent</artifactId>\n"
+            + "        <version>1.0</version>\n"
+            + "        <relativePath/>\n"
+            + "    </parent>\n"
+            + "    <artifactId>app</artifactId>\n"
+            + "    <version>${revision}</version>\n"
+            + "    <name>Example application</name>\n"
+            + "    <!-- Comments are permitted anywhere -->\n"
+            + "    <url/>\n"
+            + "    <description></description>\n"
+            + "    <inceptionYear> </inceptionYear>\n"
+            + "    <organization><name>Example</name></organization>\n"
+            + "    <properties>\n"
+            + "        <revision>1.0.0</revision>\n"
+            + "        <lib.version>2.0</lib.version>\n"
+            + "        <empty/>\n"
+            + "    </properties>\n"
+            + "    <dependencyManagement>\n"
+            + "        <dependencies>\n"
+            + "            <dependency>\n"
+            + "                <groupId>com.example</groupId>\n"
+            + "                <artifactId>bom</artifactId>\n"
+            + "                <version>1.0</version>\n"
+            + "                <type>pom</type>\n"
+            + "                <scope>import</scope>\n"
+            + "            </dependency>\n"
+            + "        </dependencies>\n"
+            + "    </dependencyManagement>\n"
+            + "    <dependencies>\n"
+            + "        <dependency>\n"
+            + "            <groupId>com.example</groupId>\n"
+            + "            <artifactId>lib</artifactId>\n"
+            + "            <version>${lib.version}</version>\n"
+            + "            <classifier>sources</classifier>\n"
+            + "            <optional>true</optional>\n"
+            + "            <exclusions>\n"
+            + "                <exclusion>\n"
+            + "                    <groupId>com.example</groupId>\n"
+            + "                    <artifactId>excluded</artifactId>\n"
+            + "                </exclusion>\n"
+            + "                <exclusion>\n"
+            + "                    <groupId>*</groupId>\n"
+            + "                    <artifactId>*</artifactId>\n"
+            + "                </exclusion>\n"
+            + "            </exclusions>\n"
+            + "        </dependency>\n"
+            + "        <dependency>\n"
+            + "            <groupId>com.example</groupId>\n"
+            + "            <artifactId>managed</artifactId>\n"
+            + "        </dependency>\n"
+            + "    </dependencies>\n"
+            + "    <build>\n"
+            + "        <plugins>\n"
+            + "            <plugin><dependencies><dependency><artifactId>ignored</artifactId></dependency></dependencies></plugin>\n"
+            + "        </plugins>\n"
+            + "    </build>\n"
+            + "</project>\n";
+
+    private static ProjectObjectModel parse(String pom) throws XMLStreamException {
+        return new ProjectObjectModel(new ByteArrayInputStream(pom.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testRead() throws XMLStreamException {
+        ProjectObjectModel project = ProjectObjectModelTest.parse(ProjectObjectModelTest.POM);
+
+        // The groupId is inherited from the parent, which is resolved by the MavenResolver
+        assertNull(project.groupId);
+        assertEquals("app", project.artifactId);
+        assertEquals("${revision}", project.version);
+
+        assertNotNull(project.parent);
+        assertEquals("com.example", project.parent.groupId);
+        assertEquals("parent", project.parent.artifactId);
+        assertEquals("1.0", project.parent.version);
+
+        assertEquals(3, project.properties.size());
+        assertEquals("1.0.0", project.properties.get("revision"));
+        assertEquals("2.0", project.properties.get("lib.version"));
+        assertEquals("", project.properties.get("empty"));
+
+        assertNotNull(project.managedDependencies);
+        assertEquals(1, project.managedDependencies.size());
+        DependencyDeclaration bom = project.managedDependencies.get(0);
+        assertEquals("bom", bom.artifactId);
+        assertEquals("pom", bom.type);
+        assertEquals("import", bom.scope);
+
+        assertEquals(2, project.dependencies.size());
+        DependencyDeclaration lib = project.dependencies.get(0);
+        assertEquals("com.example", lib.groupId);
+        assertEquals("lib", lib.artifactId);
+        assertEquals("${lib.version}", lib.version);
+        assertEquals("sources", lib.classifier);
+        assertEquals("true", lib.optional);
+        assertNull(lib.scope);
+        assertNull(lib.type);
+        assertEquals(2, lib.exclusions.size());
+        assertEquals("excluded", lib.exclusions.get(0).artifactId);
+        assertEquals("*", lib.exclusions.get(1).groupId);
+
+        DependencyDeclaration managed = project.dependencies.get(1);
+        assertEquals("managed", managed.artifactId);
+        assertNull(managed.version);
+        assertTrue(managed.exclusions == null || managed.exclusions.isEmpty());
+    }
+
+    @Test
+    public void testEmptyElements() throws XMLStreamException {
+        // The DOM-based implementation only exposed top-level elements without any child nodes as placeholders.
+        // Whitespace and comments are child nodes, too, so <inceptionYear> </inceptionYear> is not considered empty.
+        ProjectObjectModel project = ProjectObjectModelTest.parse(ProjectObjectModelTest.POM);
+        assertEquals(Arrays.asList("url", "description"), project.emptyElements);
+
+        project = ProjectObjectModelTest.parse("<project><url><!-- comment --></url><name/><build></build></project>");
+        assertEquals(Arrays.asList("name", "build"), project.emptyElements);
+    }
+
+    @Test
+    public void testMinimal() throws XMLStreamException {
+        ProjectObjectModel project = ProjectObjectModelTest.parse("<project><groupId>com.example</groupId><artifactId>minimal</artifactId><version>1.0</version></project>");
+        assertEquals("com.example", project.groupId);
+        assertEquals("minimal", project.artifactId);
+        assertEquals("1.0", project.version);
+        assertNull(project.parent);
+        assertNull(project.managedDependencies);
+        assertTrue(project.dependencies.isEmpty());
+        assertTrue(project.properties.isEmpty());
+        assertTrue(project.emptyElements.isEmpty());
+    }
+
+    @Test
+    public void testNestedBlocksIgnored() throws XMLStreamException {
+        // Profiles are never activated, so their blocks must not leak into the top-level ones
+        ProjectObjectModel project = ProjectObjectModelTest.parse("<project><artifactId>app</artifactId><profiles><profile>"
+                + "<properties><key>value</key></properties>"
+                + "<dependencies><dependency><artifactId>lib</artifactId></dependency></dependencies>"
+                + "<dependencyManagement><dependencies><dependency><artifactId>bom</artifactId></dependency></dependencies></dependencyManagement>"
+                + "</profile></profiles></project>");
+        assertEquals("app", project.artifactId);
+        assertTrue(project.properties.isEmpty());
+        assertTrue(project.dependencies.isEmpty());
+        assertNull(project.managedDependencies);
+    }
+
+    @Test
+    public void testMalformed() {
+        assertThrows(XMLStreamException.class, () -> ProjectObjectModelTest.parse("<project><dependencies></project>"));
+        // External entities must not be resolved
+        assertThrows(XMLStreamException.class, () -> ProjectObjectModelTest.parse("<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE project [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>\n"
+                + "<project><artifactId>&xxe;</artifactId></project>"));
+    }
+}
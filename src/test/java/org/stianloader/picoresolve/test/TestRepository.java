@@ -0,0 +1,164 @@
+package org.stianloader.picoresolve.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.Scope;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer;
+import org.stianloader.picoresolve.version.MavenVersion;
+import org.stianloader.picoresolve.version.VersionRange;
+
+/**
+ * A maven repository on local disk whose POMs are written by the tests, meant to be served
+ * through a file URI. All artifacts share the same groupId.
+ */
+final class TestRepository {
+
+    static final String GROUP = "com.example";
+
+    /**
+     * Creates a root layer consisting of a single element that depends on the given artifacts.
+     *
+     * @param dependencies The dependencies in the "artifact:version" format
+     * @return The root layer
+     */
+    @NotNull
+    static DependencyLayer root(@NotNull String... dependencies) {
+        List<DependencyEdge> edges = new ArrayList<>();
+        for (String dependency : dependencies) {
+            int colon = dependency.indexOf(':');
+            edges.add(new DependencyEdge(TestRepository.GROUP, dependency.substring(0, colon), null, "jar", VersionRange.parse(dependency.substring(colon + 1)), Scope.COMPILE, ExclusionContainer.empty()));
+        }
+        GAV gav = new GAV(TestRepository.GROUP, "root", MavenVersion.parse("1.0"));
+        return new DependencyLayer(null, Collections.singletonList(new DependencyLayerElement(gav, null, null, ExclusionContainer.empty(), edges)));
+    }
+
+    /**
+     * Describes the layers below a root layer, one entry per layer. Each element is described by its GAV
+     * and the GAVs its outgoing edges resolved to, sorted by GAV, so that two graphs can be compared through their descriptions.
+     *
+     * @param root The root layer
+     * @return The description of all child layers of the root layer
+     */
+    @NotNull
+    static List<String> describe(@NotNull DependencyLayer root) {
+        List<String> layers = new ArrayList<>();
+        for (DependencyLayer layer = root.getChild(); layer != null; layer = layer.getChild()) {
+            List<String> elements = new ArrayList<>();
+            for (DependencyLayerElement element : layer.elements) {
+                StringBuilder builder = new StringBuilder();
+                builder.append(element.gav).append(" -> [");
+                boolean first = true;
+                for (DependencyEdge edge : element.outgoingEdges) {
+                    if (!first) {
+                        builder.append(", ");
+                    }
+                    first = false;
+                    builder.append(edge.isResolved() ? edge.getResolved().gav.toString() : edge.artifact + " (unresolved)");
+                }
+                elements.add(builder.append(']').toString());
+            }
+            // The order of the elements within a layer depends on the order in which they were resolved
+            Collections.sort(elements);
+            layers.add(String.join(", ", elements));
+        }
+        return layers;
+    }
+
+    @NotNull
+    static String dependency(@NotNull String artifact, @Nullable String version) {
+        return TestRepository.dependency(artifact, version, "");
+    }
+
+    @NotNull
+    static String dependency(@NotNull String artifact, @Nullable String version, @NotNull String extra) {
+        return "        <dependency>\n"
+                + "            <groupId>" + TestRepository.GROUP + "</groupId>\n"
+                + "            <artifactId>" + artifact + "</artifactId>\n"
+                + (version == null ? "" : "            <version>" + version + "</version>\n")
+                + extra
+                + "        </dependency>\n";
+    }
+
+    @NotNull
+    static String dependencies(@NotNull String... dependencies) {
+        return "    <dependencies>\n" + String.join("", dependencies) + "    </dependencies>\n";
+    }
+
+    @NotNull
+    static String dependencyManagement(@NotNull String... dependencies) {
+        return "    <dependencyManagement>\n" + TestRepository.dependencies(dependencies) + "    </dependencyManagement>\n";
+    }
+
+    @NotNull
+    static String exclusion(@NotNull String artifact) {
+        return "            <exclusions><exclusion>\n"
+                + "                <groupId>" + TestRepository.GROUP + "</groupId>\n"
+                + "                <artifactId>" + artifact + "</artifactId>\n"
+                + "            </exclusion></exclusions>\n";
+    }
+
+    @NotNull
+    private final Path directory;
+    @NotNull
+    private final Map<String, Set<String>> versions = new LinkedHashMap<>();
+
+    TestRepository(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Writes the POM of an artifact and adds the version to the maven-metadata.xml of the artifact.
+     *
+     * @param artifact The artifactId of the artifact
+     * @param version The version of the artifact
+     * @param body The contents of the project element besides the coordinates
+     * @return The current instance, for chaining
+     * @throws IOException If the files could not be written
+     */
+    @NotNull
+    TestRepository pom(@NotNull String artifact, @NotNull String version, @NotNull String body) throws IOException {
+        Path artifactDirectory = this.directory.resolve(TestRepository.GROUP.replace('.', '/')).resolve(artifact);
+        Files.createDirectories(artifactDirectory.resolve(version));
+        String pom = "<project>\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n"
+                + "    <groupId>" + TestRepository.GROUP + "</groupId>\n"
+                + "    <artifactId>" + artifact + "</artifactId>\n"
+                + "    <version>" + version + "</version>\n"
+                + body
+                + "</project>\n";
+        Files.write(artifactDirectory.resolve(version).resolve(artifact + "-" + version + ".pom"), pom.getBytes(StandardCharsets.UTF_8));
+
+        Set<String> versions = this.versions.computeIfAbsent(artifact, (key) -> new LinkedHashSet<>());
+        versions.add(version);
+        StringBuilder metadata = new StringBuilder();
+        metadata.append("<metadata>\n");
+        metadata.append("  <groupId>").append(TestRepository.GROUP).append("</groupId>\n");
+        metadata.append("  <artifactId>").append(artifact).append("</artifactId>\n");
+        metadata.append("  <versioning>\n");
+        metadata.append("    <versions>\n");
+        for (String v : versions) {
+            metadata.append("      <version>").append(v).append("</version>\n");
+        }
+        metadata.append("    </versions>\n");
+        metadata.append("  </versioning>\n");
+        metadata.append("</metadata>\n");
+        Files.write(artifactDirectory.resolve("maven-metadata.xml"), metadata.toString().getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+}
@@ -0,0 +1,96 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+public class URIMavenRepositoryTest {
+
+    private static final String PATH = "com/example/lib/1.0/lib-1.0.pom";
+
+    @TempDir
+    Path temp;
+
+    @NotNull
+    private Path writeRemote() throws IOException {
+        Path remote = this.temp.resolve("remote");
+        Path file = remote.resolve(URIMavenRepositoryTest.PATH);
+        Files.createDirectories(file.getParent());
+        Files.write(file, "remote".getBytes(StandardCharsets.UTF_8));
+        return remote;
+    }
+
+    @Test
+    public void testTransfer() throws IOException {
+        URIMavenRepository repository = new URIMavenRepository("test", this.writeRemote().toUri());
+        Path target = this.temp.resolve("target");
+        assertEquals(target, repository.transferResource(URIMavenRepositoryTest.PATH, target, Runnable::run).join().getValue());
+        assertArrayEquals("remote".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target));
+        assertArrayEquals("remote".getBytes(StandardCharsets.UTF_8), repository.getResource(URIMavenRepositoryTest.PATH, Runnable::run).join().getValue());
+    }
+
+    @Test
+    public void testOpenResourceOverride() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        URIMavenRepository repository = new URIMavenRepository("test", this.writeRemote().toUri()) {
+            @Override
+            @NotNull
+            protected InputStream openResource(@NotNull String path) throws Exception {
+                requests.incrementAndGet();
+                try (InputStream is = super.openResource(path)) {
+                    is.read(new byte[64]);
+                }
+                return new ByteArrayInputStream("custom".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+
+        Path target = this.temp.resolve("target");
+        repository.transferResource(URIMavenRepositoryTest.PATH, target, Runnable::run).join();
+        assertArrayEquals("custom".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target));
+        assertArrayEquals("custom".getBytes(StandardCharsets.UTF_8), repository.getResource(URIMavenRepositoryTest.PATH, Runnable::run).join().getValue());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testGetResourceOverride() throws IOException {
+        URIMavenRepository repository = new URIMavenRepository("test", this.writeRemote().toUri()) {
+            @Override
+            protected byte @NotNull[] getResource0(@NotNull String path) throws Exception {
+                return "legacy".getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        // Subclasses which predate openResource are not bypassed when transferring resources
+        Path target = this.temp.resolve("target");
+        repository.transferResource(URIMavenRepositoryTest.PATH, target, Runnable::run).join();
+        assertArrayEquals("legacy".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target));
+    }
+
+    @Test
+    public void testStreamingSubclass() throws IOException {
+        URIMavenRepository repository = new URIMavenRepository("test", this.writeRemote().toUri(), false) {
+            @Override
+            protected byte @NotNull[] getResource0(@NotNull String path) throws Exception {
+                return "buffered".getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        // Subclasses which state that they do not customize fetching have their transfers streamed from openResource
+        Path target = this.temp.resolve("target");
+        repository.transferResource(URIMavenRepositoryTest.PATH, target, Runnable::run).join();
+        assertArrayEquals("remote".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target));
+        assertArrayEquals("buffered".getBytes(StandardCharsets.UTF_8), repository.getResource(URIMavenRepositoryTest.PATH, Runnable::run).join().getValue());
+    }
+}
@@ -0,0 +1,91 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.version.VersionRange;
+
+public class VersionCacheTest {
+
+    private static final long SHORT_INTERVAL = 500L;
+
+    private static class IntervalRepository extends URIMavenRepository {
+        private final long updateInterval;
+
+        IntervalRepository(@NotNull String id, @NotNull URI base, long updateInterval) {
+            super(id, base);
+            this.updateInterval = updateInterval;
+        }
+
+        @Override
+        public long getUpdateIntervall() {
+            return this.updateInterval;
+        }
+    }
+
+    @TempDir
+    Path temp;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @NotNull
+    private String selectLatest(@NotNull MavenResolver resolver) throws Exception {
+        return resolver.download(TestRepository.GROUP, "lib", VersionRange.parse("[1.0,)"), null, "pom", this.executor)
+                .get(1, TimeUnit.MINUTES).getKey().version().getOriginText();
+    }
+
+    @Test
+    public void testExpiryFollowsSmallestInterval() throws Exception {
+        new TestRepository(this.temp.resolve("slow")).pom("lib", "1.0", "");
+        TestRepository fast = new TestRepository(this.temp.resolve("fast")).pom("lib", "1.0", "");
+        MavenResolver resolver = new MavenResolver(this.temp.resolve("local"))
+                .addRepository(new IntervalRepository("slow", this.temp.resolve("slow").toUri(), TimeUnit.DAYS.toMillis(1)))
+                .addRepository(new IntervalRepository("fast", this.temp.resolve("fast").toUri(), VersionCacheTest.SHORT_INTERVAL));
+        assertEquals("1.0", this.selectLatest(resolver));
+
+        // The merged catalogue is cached until the metadata of the first repository goes stale
+        fast.pom("lib", "2.0", "");
+        long published = System.currentTimeMillis();
+        String selected = this.selectLatest(resolver);
+        if (System.currentTimeMillis() - published < VersionCacheTest.SHORT_INTERVAL) {
+            assertEquals("1.0", selected);
+        }
+
+        Thread.sleep(VersionCacheTest.SHORT_INTERVAL + 100L);
+        assertEquals("2.0", this.selectLatest(resolver));
+    }
+
+    @Test
+    public void testZeroCapacity() throws Exception {
+        TestRepository repository = new TestRepository(this.temp.resolve("remote")).pom("lib", "1.0", "");
+        MavenResolver resolver = new MavenResolver(this.temp.resolve("local"))
+                .addRepository(new IntervalRepository("remote", this.temp.resolve("remote").toUri(), 0L))
+                .setVersionCacheCapacity(0);
+        assertEquals("1.0", this.selectLatest(resolver));
+        repository.pom("lib", "2.0", "");
+        assertEquals("2.0", this.selectLatest(resolver));
+    }
+}
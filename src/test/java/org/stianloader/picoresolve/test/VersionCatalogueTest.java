@@ -0,0 +1,169 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.internal.ConfusedResolverException;
+import org.stianloader.picoresolve.internal.meta.VersionCatalogue;
+import org.stianloader.picoresolve.internal.meta.VersionCatalogue.SnapshotVersion;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+public class VersionCatalogueTest {
+
+    private static final String RELEASES = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<metadata>\n"
+            + "  <groupId>com.example</groupId>\n"
+            + "  <artifactId>lib</artifactId>\n"
+            + "  <versioning>\n"
+            + "    <latest>2.0-beta</latest>\n"
+            + "    <release>1.10</release>\n"
+            + "    <versions>\n"
+            + "      <version>1.0</version>\n"
+            + "      <version>1.10</version>\n"
+            + "      <Version>1.2</Version>\n"
+            + "      <other>3.0</other>\n"
+            + "      <version>2.0-beta</version>\n"
+            + "    </versions>\n"
+            + "    <lastUpdated>20240102030405</lastUpdated>\n"
+            + "  </versioning>\n"
+            + "</metadata>\n";
+
+    private static final String SNAPSHOTS = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<metadata modelVersion=\"1.1.0\">\n"
+            + "  <groupId>com.example</groupId>\n"
+            + "  <artifactId>lib</artifactId>\n"
+            + "  <version>1.0-SNAPSHOT</version>\n"
+            + "  <versioning>\n"
+            + "    <snapshot>\n"
+            + "      <timestamp>20240102.030405</timestamp>\n"
+            + "      <buildNumber>7</buildNumber>\n"
+            + "    </snapshot>\n"
+            + "    <lastUpdated>20240102030405</lastUpdated>\n"
+            + "    <snapshotVersions>\n"
+            + "      <snapshotVersion>\n"
+            + "        <extension>jar</extension>\n"
+            + "        <value>1.0-20240102.030405-7</value>\n"
+            + "        <updated>20240102030405</updated>\n"
+            + "      </snapshotVersion>\n"
+            + "      <snapshotVersion>\n"
+            + "        <classifier>sources</classifier>\n"
+            + "        <extension>jar</extension>\n"
+            + "        <value>1.0-20240102.030405-7</value>\n"
+            + "        <updated>20240102030405</updated>\n"
+            + "      </snapshotVersion>\n"
+            + "    </snapshotVersions>\n"
+            + "  </versioning>\n"
+            + "</metadata>\n";
+
+    private static VersionCatalogue parse(String metadata) throws XMLStreamException {
+        return new VersionCatalogue(new ByteArrayInputStream(metadata.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testReleases() throws XMLStreamException {
+        VersionCatalogue catalogue = VersionCatalogueTest.parse(VersionCatalogueTest.RELEASES);
+
+        // The version elements are matched case-insensitively, while unknown elements are skipped
+        assertEquals(Arrays.asList(MavenVersion.parse("1.0"), MavenVersion.parse("1.10"), MavenVersion.parse("1.2"), MavenVersion.parse("2.0-beta")), catalogue.releaseVersions);
+        assertFalse(catalogue.releaseVersionsSorted);
+        assertEquals(MavenVersion.parse("2.0-beta"), catalogue.latestVersion);
+        assertEquals(MavenVersion.parse("1.10"), catalogue.releaseVersion);
+        assertEquals("20240102030405", catalogue.lastUpdated);
+        assertEquals(2024, catalogue.lastUpdateYear);
+        assertEquals(1, catalogue.lastUpdateMonth);
+        assertEquals(2, catalogue.lastUpdateDay);
+        assertEquals(3, catalogue.lastUpdateHour);
+        assertEquals(4, catalogue.lastUpdateMinute);
+        assertEquals(5, catalogue.lastUpdateSecond);
+        assertNull(catalogue.fallbackSnapshotVersion);
+        assertTrue(catalogue.snapshotVersions.isEmpty());
+    }
+
+    @Test
+    public void testSnapshots() throws XMLStreamException {
+        VersionCatalogue catalogue = VersionCatalogueTest.parse(VersionCatalogueTest.SNAPSHOTS);
+
+        assertTrue(catalogue.releaseVersions.isEmpty());
+        assertEquals(2, catalogue.snapshotVersions.size());
+        assertNull(catalogue.snapshotVersions.get(0).classifier());
+        assertEquals("jar", catalogue.snapshotVersions.get(0).extension());
+        assertEquals(new SnapshotVersion("jar", "sources", "1.0-20240102.030405-7", "20240102030405"), catalogue.snapshotVersions.get(1));
+        assertEquals("1.0-20240102.030405-7", catalogue.fallbackSnapshotVersion);
+        assertFalse(catalogue.localCopy);
+    }
+
+    @Test
+    public void testAbbreviatedSnapshots() throws XMLStreamException {
+        // Shared local repositories may contain metadata without the snapshotVersions element
+        VersionCatalogue catalogue = VersionCatalogueTest.parse("<metadata><version>1.0-Snapshot</version><versioning>"
+                + "<snapshot><timestamp>20240102.030405</timestamp><buildNumber>7</buildNumber></snapshot>"
+                + "</versioning></metadata>");
+        assertTrue(catalogue.snapshotVersions.isEmpty());
+        // The suffix is stripped regardless of its case
+        assertEquals("1.0-20240102.030405-7", catalogue.fallbackSnapshotVersion);
+
+        catalogue = VersionCatalogueTest.parse("<metadata><version>1.0-SNAPSHOT</version><versioning>"
+                + "<snapshot><localCopy>TRUE</localCopy></snapshot></versioning></metadata>");
+        assertTrue(catalogue.localCopy);
+        assertNull(catalogue.fallbackSnapshotVersion);
+
+        assertThrows(ConfusedResolverException.class, () -> VersionCatalogueTest.parse("<metadata><version>1.0-SNAPSHOT</version><versioning>"
+                + "<snapshot><timestamp>20240102.030405</timestamp></snapshot></versioning></metadata>"));
+    }
+
+    @Test
+    public void testSnapshotCaseSensitive() {
+        // Unlike the other children of the versioning element, the snapshot element is matched case-sensitively,
+        // and so are its children
+        assertThrows(ConfusedResolverException.class, () -> VersionCatalogueTest.parse("<metadata><version>1.0-SNAPSHOT</version><versioning>"
+                + "<Snapshot><timestamp>20240102.030405</timestamp><buildNumber>7</buildNumber></Snapshot>"
+                + "</versioning></metadata>"));
+        assertThrows(ConfusedResolverException.class, () -> VersionCatalogueTest.parse("<metadata><version>1.0-SNAPSHOT</version><versioning>"
+                + "<snapshot><Timestamp>20240102.030405</Timestamp><BuildNumber>7</BuildNumber></snapshot>"
+                + "</versioning></metadata>"));
+    }
+
+    @Test
+    public void testVersioningVersionFallback() throws XMLStreamException {
+        // Some metadata files declare the latest version through a version element within the versioning element
+        VersionCatalogue catalogue = VersionCatalogueTest.parse("<metadata><versioning><version>1.5</version>"
+                + "<versions><version>1.0</version><version>1.5</version></versions></versioning></metadata>");
+        assertEquals(MavenVersion.parse("1.5"), catalogue.latestVersion);
+        assertNull(catalogue.releaseVersion);
+
+        assertThrows(IllegalStateException.class, () -> VersionCatalogueTest.parse("<metadata><versioning><latest>1.5</latest><version>1.5</version>"
+                + "<versions><version>1.5</version></versions></versioning></metadata>"));
+
+        // The fallback snapshot version is derived from the version within the versioning element
+        // should the metadata element not declare a version of its own
+        catalogue = VersionCatalogueTest.parse("<metadata><versioning><version>1.0-SNAPSHOT</version>"
+                + "<snapshot><timestamp>20240102.030405</timestamp><buildNumber>7</buildNumber></snapshot>"
+                + "</versioning></metadata>");
+        assertEquals("1.0-20240102.030405-7", catalogue.fallbackSnapshotVersion);
+
+        // The version of the metadata element takes precedence
+        catalogue = VersionCatalogueTest.parse("<metadata><version>2.0-SNAPSHOT</version><versioning><version>1.0-SNAPSHOT</version>"
+                + "<snapshot><timestamp>20240102.030405</timestamp><buildNumber>7</buildNumber></snapshot>"
+                + "</versioning></metadata>");
+        assertEquals("2.0-20240102.030405-7", catalogue.fallbackSnapshotVersion);
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(NoSuchElementException.class, () -> VersionCatalogueTest.parse("<metadata><groupId>com.example</groupId></metadata>"));
+        assertThrows(ConfusedResolverException.class, () -> VersionCatalogueTest.parse("<metadata><versioning><release>1.0</release></versioning></metadata>"));
+        assertThrows(ConfusedResolverException.class, () -> VersionCatalogueTest.parse("<metadata><versioning><versions/><lastUpdated>2024</lastUpdated></versioning></metadata>"));
+        assertThrows(XMLStreamException.class, () -> VersionCatalogueTest.parse("<metadata><versioning>"));
+    }
+}
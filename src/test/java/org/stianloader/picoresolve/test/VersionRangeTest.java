@@ -3,8 +3,12 @@ package org.stianloader.picoresolve.test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import org.junit.jupiter.api.Test;
@@ -92,4 +96,68 @@ public class VersionRangeTest {
     public void testImplicitPinVersionRange() {
         assertFalse(VersionRange.parse("1").containsVersion(MavenVersion.parse("1.1")));
     }
+
+    @Test
+    public void testSortedSelection() {
+        List<MavenVersion> available = new ArrayList<>();
+        for (String version : new String[] {"0.1", "1.0-alpha", "1.0", "1.0.1", "1.1", "2.0-SNAPSHOT", "2.0", "2.1", "3"}) {
+            available.add(MavenVersion.parse(version));
+        }
+        Collections.sort(available);
+
+        for (String range : new String[] {",", "1.0", "[1.0]", "[1.0,2.0]", "[1.0,2.0)", "(1.0,2.0)", "[1.0,)",
+                "(,2.0]", "(,2.0)", "(,0.1)", "(3,)", "[1.0,),(,2.0)", "[1.1,2.0],[1.0,2.0)", "[1.5,1.6]", "[2.0,2.0]"}) {
+            VersionRange parsed = VersionRange.parse(range);
+            assertEquals(parsed.selectFrom(available, null), parsed.selectFromSorted(available, null), range);
+        }
+
+        assertEquals(MavenVersion.parse("2.0-SNAPSHOT"), VersionRange.parse("[1.0,2.0)").selectFromSorted(available, null));
+        assertEquals(MavenVersion.parse("3"), VersionRange.parse("[1.0,)").selectFromSorted(available, null));
+        assertNull(VersionRange.parse("[1.5,1.6]").selectFromSorted(available, null));
+    }
+
+    @Test
+    public void testIntersection() {
+        VersionRange range = VersionRange.parse("[1.0,3.0)").intersect(VersionRange.parse("(1.0,)")).intersect(VersionRange.parse("(,2.0]"));
+        assertFalse(range.isEmpty());
+        assertFalse(range.containsVersion(MavenVersion.parse("1.0")));
+        assertTrue(range.containsVersion(MavenVersion.parse("1.0.1")));
+        assertTrue(range.containsVersion(MavenVersion.parse("2.0")));
+        assertFalse(range.containsVersion(MavenVersion.parse("2.0.1")));
+
+        range = VersionRange.parse("[1.0,2.0]").intersect(VersionRange.parse("[2.0,3.0]"));
+        assertFalse(range.isEmpty());
+        assertTrue(range.containsVersion(MavenVersion.parse("2")));
+        assertFalse(range.containsVersion(MavenVersion.parse("1.9")));
+
+        assertTrue(VersionRange.parse("[1.0,2.0)").intersect(VersionRange.parse("[2.0,3.0]")).isEmpty());
+        assertTrue(VersionRange.parse("[1.0]").intersect(VersionRange.parse("[1.1]")).isEmpty());
+        assertTrue(VersionRange.parse("(,1.0)").intersect(VersionRange.parse("[1.0,)")).isEmpty());
+        assertFalse(VersionRange.parse("1.0").intersect(VersionRange.parse("1.1")).isEmpty());
+        assertFalse(VersionRange.FREE_RANGE.intersect(VersionRange.parse("[1.0,2.0]")).isEmpty());
+    }
+
+    @Test
+    public void testRangeSpecification() {
+        for (String range : new String[] {"1.0", "[1.0]", "[1.0,2.0)", "(1.0,2.0]", "(,1.0]", "(1.0,)", "[1.0,),1.5", ",", "RELEASE"}) {
+            assertEquals(range, VersionRange.parse(range).toSpecification());
+        }
+        assertEquals("[1.5,2.0)", VersionRange.parse("[1.0,2.0)").intersect(VersionRange.parse("[1.5,3.0)")).toSpecification());
+        assertTrue(VersionRange.parse(VersionRange.parse("[1.0,2.0)").toSpecification()).containsVersion(MavenVersion.parse("1.9")));
+
+        // With interning, both bounds of a half-open interval may be the same instance
+        boolean interning = MavenVersion.isInterning();
+        MavenVersion.setInterning(true);
+        try {
+            for (String range : new String[] {"[1.0]", "(1.0,1.0]", "[1.0,1.0)", "(1.0,1.0)"}) {
+                assertEquals(range, VersionRange.parse(range).toSpecification());
+            }
+            VersionRange empty = VersionRange.parse("(,1.0)").intersect(VersionRange.parse("[1.0,)"));
+            assertTrue(empty.isEmpty());
+            assertEquals("[1.0,1.0)", empty.toSpecification());
+            assertTrue(VersionRange.parse(empty.toSpecification()).isEmpty());
+        } finally {
+            MavenVersion.setInterning(interning);
+        }
+    }
 }